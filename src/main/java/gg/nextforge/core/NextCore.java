@@ -1,5 +1,6 @@
 package gg.nextforge.core;
 
+import gg.nextforge.core.i18n.I18n;
 import gg.nextforge.core.plugin.ForgedPlugin;
 import gg.nextforge.core.plugin.dependency.model.DependencyArtifact;
 import gg.nextforge.core.plugin.dependency.model.DependencyRepository;
@@ -26,6 +27,7 @@ public class NextCore extends ForgedPlugin {
         instance = this;
 
         // Register commands, listeners, etc.
+        commandManager().register(new NextCoreCommand(scheduler(), services().get(I18n.class).orElseThrow()));
         getLogger().info("NextCore has been enabled successfully.");
     }
 
@@ -0,0 +1,120 @@
+package gg.nextforge.core;
+
+import gg.nextforge.core.commands.annotation.Command;
+import gg.nextforge.core.commands.annotation.Subcommand;
+import gg.nextforge.core.commands.annotation.TabComplete;
+import gg.nextforge.core.i18n.Arg;
+import gg.nextforge.core.i18n.I18n;
+import gg.nextforge.core.i18n.MessageKey;
+import gg.nextforge.core.scheduler.NextForgeScheduler;
+import gg.nextforge.core.scheduler.TaskTimings;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Command(name = "nextcore", permission = "nextcore.admin")
+public class NextCoreCommand {
+
+    private static final int TOP = 10;
+    private static final Set<String> COUNT_METRICS = Set.of("sync-pending", "cpu-queue", "cpu-active", "io-in-flight");
+
+    private static final MessageKey ENABLED = MessageKey.of("nextcore.timings.enabled");
+    private static final MessageKey DISABLED = MessageKey.of("nextcore.timings.disabled");
+    private static final MessageKey RESET = MessageKey.of("nextcore.timings.reset");
+    private static final MessageKey OFF = MessageKey.of("nextcore.timings.off");
+    private static final MessageKey HEADER = MessageKey.of("nextcore.timings.header");
+    private static final MessageKey THREADS_VIRTUAL = MessageKey.of("nextcore.timings.threads.virtual");
+    private static final MessageKey THREADS_PLATFORM = MessageKey.of("nextcore.timings.threads.platform");
+    private static final MessageKey TOP_TASKS = MessageKey.of("nextcore.timings.top");
+    private static final MessageKey NO_SAMPLES = MessageKey.of("nextcore.timings.no_samples");
+    private static final MessageKey TASK = MessageKey.of("nextcore.timings.task");
+    private static final MessageKey SCHEDULER = MessageKey.of("nextcore.timings.scheduler");
+    private static final MessageKey METRIC = MessageKey.of("nextcore.timings.metric");
+    private static final MessageKey COUNT = MessageKey.of("nextcore.timings.count");
+
+    private final NextForgeScheduler scheduler;
+    private final I18n i18n;
+
+    public NextCoreCommand(NextForgeScheduler scheduler, I18n i18n) {
+        this.scheduler = scheduler;
+        this.i18n = i18n;
+    }
+
+    /** /nextcore timings [on|off|reset|seconds] */
+    @Subcommand(value = "timings", permission = "nextcore.timings")
+    public void timings(CommandSender sender, String[] args) {
+        TaskTimings timings = scheduler.timings();
+        String action = args.length == 0 ? "" : args[0].toLowerCase(Locale.ROOT);
+        switch (action) {
+            case "on" -> {
+                timings.enabled(true);
+                sender.sendMessage(i18n.component(sender, ENABLED));
+            }
+            case "off" -> {
+                timings.enabled(false);
+                sender.sendMessage(i18n.component(sender, DISABLED));
+            }
+            case "reset" -> {
+                timings.reset();
+                sender.sendMessage(i18n.component(sender, RESET));
+            }
+            default -> report(sender, timings, action.isEmpty() ? 60 : parseSeconds(action));
+        }
+    }
+
+    @TabComplete("timings")
+    public List<String> timingsTab(CommandSender sender, String[] args) {
+        String prefix = args.length < 2 ? "" : args[1].toLowerCase(Locale.ROOT);
+        List<String> out = new ArrayList<>();
+        for (String s : List.of("on", "off", "reset", "60", "300")) if (s.startsWith(prefix)) out.add(s);
+        return out;
+    }
+
+    /* ---------------- intern ---------------- */
+
+    private void report(CommandSender sender, TaskTimings timings, int seconds) {
+        if (!timings.enabled()) {
+            sender.sendMessage(i18n.component(sender, OFF));
+            return;
+        }
+        sender.sendMessage(i18n.component(sender, HEADER, Arg.text("seconds", seconds),
+                Arg.component("threads", i18n.component(sender, scheduler.usesVirtualThreads() ? THREADS_VIRTUAL : THREADS_PLATFORM))));
+
+        sender.sendMessage(i18n.component(sender, TOP_TASKS));
+        List<TaskTimings.Entry> top = timings.topTasks(seconds, TOP);
+        if (top.isEmpty()) sender.sendMessage(i18n.component(sender, NO_SAMPLES));
+        for (TaskTimings.Entry e : top) {
+            sender.sendMessage(i18n.component(sender, TASK,
+                    Arg.text("total", String.format(Locale.ROOT, "%8s", ms(e.total()))),
+                    Arg.text("runs", String.format(Locale.ROOT, "%6d", e.count())),
+                    Arg.text("avg", ms(e.average())), Arg.text("p95", ms(e.p95())), Arg.text("max", ms(e.max())),
+                    Arg.text("name", e.name())));
+        }
+
+        sender.sendMessage(i18n.component(sender, SCHEDULER));
+        for (TaskTimings.Entry e : timings.metrics(seconds)) {
+            Arg name = Arg.text("name", String.format(Locale.ROOT, "%-13s", e.name()));
+            if (COUNT_METRICS.contains(e.name())) {
+                sender.sendMessage(i18n.component(sender, COUNT, name, Arg.text("avg", e.average()), Arg.text("max", e.max())));
+            } else {
+                sender.sendMessage(i18n.component(sender, METRIC, name,
+                        Arg.text("avg", ms(e.average())), Arg.text("p95", ms(e.p95())), Arg.text("max", ms(e.max()))));
+            }
+        }
+    }
+
+    private static int parseSeconds(String arg) {
+        try {
+            return Math.max(1, Math.min(TaskTimings.WINDOW_SECONDS, Integer.parseInt(arg)));
+        } catch (NumberFormatException e) {
+            return 60;
+        }
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+}
@@ -1,41 +1,106 @@
 // gg/nextforge/core/commands/CommandManager.java
 package gg.nextforge.core.commands;
 
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
 import gg.nextforge.core.NextCore;
 import gg.nextforge.core.commands.annotation.Command;
 import gg.nextforge.core.commands.annotation.Subcommand;
 import gg.nextforge.core.commands.annotation.TabComplete;
+import gg.nextforge.core.commands.argument.ArgumentParseException;
+import gg.nextforge.core.commands.argument.ArgumentParsers;
+import gg.nextforge.core.commands.suggest.OnlinePlayerIndex;
+import gg.nextforge.core.commands.suggest.SuggestionIndex;
+import gg.nextforge.core.events.EventBus;
+import gg.nextforge.core.i18n.Arg;
 import gg.nextforge.core.i18n.I18n;
 import gg.nextforge.core.plugin.inject.Injector;
 import gg.nextforge.core.plugin.inject.ServiceRegistry;
-import net.kyori.adventure.audience.Audience;
+import gg.nextforge.core.scheduler.NextForgeScheduler;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CommandManager {
 
     private final JavaPlugin plugin;
     private final ServiceRegistry services;
     private final I18n i18n;
-    private final Audience audiences;
+    private final ArgumentParsers parsers = new ArgumentParsers();
+    private final Map<String, CommandNode> roots = new ConcurrentHashMap<>(); // labels, aliases, "plugin:label"
+    private final SuggestionCache suggestions = new SuggestionCache();
+    private final PermissionCache permissions = new PermissionCache();
+    private final Map<String, SuggestionIndex> indexes = new ConcurrentHashMap<>();
+    private OnlinePlayerIndex players;                        // null without an EventBus
+    private final NextForgeScheduler scheduler;               // null: async subcommands run inline
+    private final Map<Object, AtomicInteger> inFlight = new ConcurrentHashMap<>(); // async executions per sender
+    private volatile int maxAsyncPerSender = 2;
     private final List<org.bukkit.command.Command> registered = new CopyOnWriteArrayList<>();
 
     public CommandManager(JavaPlugin plugin, ServiceRegistry services) {
         this.plugin = plugin;
         this.services = services;
         this.i18n = services.get(I18n.class).orElseThrow();
-        this.audiences = Audience.audience(plugin.getServer());
+        this.scheduler = services.get(NextForgeScheduler.class).orElse(null);
+        services.get(EventBus.class).ifPresent(bus -> {
+            listenAsyncTabComplete(bus);
+            bus.subscribe(PlayerJoinEvent.class, EventPriority.MONITOR, e -> invalidatePermissions(e.getPlayer()));
+            bus.subscribe(PlayerQuitEvent.class, EventPriority.MONITOR, e -> invalidatePermissions(e.getPlayer()));
+            bus.subscribe(PlayerChangedWorldEvent.class, EventPriority.MONITOR, e -> invalidatePermissions(e.getPlayer()));
+            players = new OnlinePlayerIndex(bus);
+            parsers.register(Player.class, ArgumentParsers.player(players));
+            indexes.put("players", players);
+        });
     }
 
+    /** Parsers for typed subcommand parameters; register custom types before {@link #register}. */
+    public ArgumentParsers parsers() {
+        return parsers;
+    }
+
+    /** Limit of concurrently running {@code async} subcommands per sender; further calls get {@code command.busy}. */
+    public void maxAsyncPerSender(int limit) {
+        this.maxAsyncPerSender = Math.max(1, limit);
+    }
+
+    /** Makes {@code index} available to {@code @Suggest("name")} parameters. */
+    public void registerIndex(String name, SuggestionIndex index) {
+        indexes.put(Objects.requireNonNull(name, "name"), Objects.requireNonNull(index, "index"));
+    }
+
+    /**
+     * Drops cached permission decisions and suggestions for {@code sender}. The cache only shapes tab
+     * completion; execution always checks live. Join, quit and world changes do this automatically; call
+     * it from your permission plugin's recalculation event (e.g. LuckPerms' {@code UserDataRecalculateEvent})
+     * so suggestions follow grants and revokes immediately instead of within seconds.
+     */
+    public void invalidatePermissions(CommandSender sender) {
+        permissions.invalidate(sender);
+        suggestions.invalidate(sender);
+    }
+
+    /** Drops cached permission decisions and suggestions for every sender, e.g. after a group change. */
+    public void invalidatePermissions() {
+        permissions.clear();
+        suggestions.clear();
+    }
+
+    /**
+     * Compiles the {@code @Command} class into a dispatch tree and registers it. {@code @Subcommand}
+     * values may be nested paths ("guild invite"); "" binds the command label itself.
+     */
     public void register(Object commandInstance) {
         Class<?> clazz = commandInstance.getClass();
         gg.nextforge.core.commands.annotation.Command meta = clazz.getAnnotation(gg.nextforge.core.commands.annotation.Command.class);
@@ -43,31 +108,49 @@ public class CommandManager {
 
         Injector.wire(commandInstance, services);
 
-        Map<String, Method> subMap = new HashMap<>();
-        Map<String, Method> tabMap = new HashMap<>();
+        CommandNode root = new CommandNode(meta.name(), "");
+        root.permission = meta.permission();
         for (Method m : clazz.getDeclaredMethods()) {
-            if (m.isAnnotationPresent(Subcommand.class) && Modifier.isPublic(m.getModifiers())) {
-                subMap.put(m.getAnnotation(Subcommand.class).value().toLowerCase(Locale.ROOT), m);
+            if (!Modifier.isPublic(m.getModifiers())) continue;
+            Subcommand sc = m.getAnnotation(Subcommand.class);
+            if (sc != null) {
+                CommandNode node = root.resolve(sc.value());
+                if (node.handler != null)
+                    throw new IllegalArgumentException("Duplicate @Subcommand(\"" + sc.value() + "\") in " + clazz.getName());
+                if (node != root) node.permission = sc.permission();
+                node.handler = CompiledMethod.compile(commandInstance, m, parsers);
+                node.async = sc.async();
             }
-            if (m.isAnnotationPresent(TabComplete.class) && Modifier.isPublic(m.getModifiers())) {
-                tabMap.put(m.getAnnotation(TabComplete.class).value().toLowerCase(Locale.ROOT), m);
+            TabComplete tc = m.getAnnotation(TabComplete.class);
+            if (tc != null) {
+                CompiledMethod completer = CompiledMethod.compile(commandInstance, m, parsers);
+                if (completer.parsers.length > 0)
+                    throw new IllegalArgumentException("@TabComplete takes (sender, String[]) only: " + m);
+                CommandNode node = root.resolve(tc.value());
+                node.completer = completer;
+                node.completerAsync = tc.async();
             }
         }
+        root.freeze();
 
         String desc = meta.descriptionKey().isBlank() ? "" : i18n.raw(null, meta.descriptionKey());
-        ReflectiveCommand dyn = new ReflectiveCommand(
+        DynamicCommand dyn = new DynamicCommand(
                 meta.name(),
                 desc,
-                meta.permission(),
                 Arrays.asList(meta.aliases()),
-                (sender, label, args) -> execute(commandInstance, meta, subMap, sender, label, args),
-                (sender, label, args) -> tabComplete(commandInstance, subMap, tabMap, sender, label, args)
+                (sender, label, args) -> execute(root, sender, label, args),
+                (sender, label, args) -> complete(root, sender, args, false)
         );
         dyn.setLabel(meta.name());
 
         CommandMap map = getCommandMap();
-        map.register(plugin.getName().toLowerCase(Locale.ROOT), dyn);
+        String prefix = plugin.getName().toLowerCase(Locale.ROOT);
+        map.register(prefix, dyn);
         registered.add(dyn);
+        for (String label : labels(meta)) {
+            roots.put(label, root);
+            roots.put(prefix + ":" + label, root);
+        }
     }
 
     public void unregisterAll() {
@@ -79,6 +162,10 @@ public class CommandManager {
                 known.entrySet().removeIf(e -> e.getValue() == cmd);
             }
             registered.clear();
+            roots.clear();
+            suggestions.clear();
+            permissions.clear();
+            if (players != null) players.close();
         } catch (Throwable t) {
             plugin.getSLF4JLogger().warn("Failed to unregister commands cleanly", t);
         }
@@ -97,140 +184,253 @@ public class CommandManager {
         }
     }
 
-    private boolean execute(Object instance, Command meta, Map<String, Method> subs,
-                            CommandSender sender, String label, String[] args) {
-        if (!meta.permission().isBlank() && !sender.hasPermission(meta.permission())) {
-            send(sender, i18n.component(sender, "command.no_permission"));
-            return true;
-        }
-        if (args.length == 0) {
-            send(sender, i18n.component(sender, "command.usage", I18n.vars("label", "/" + label)));
-            return true;
+    /** Walks the literals, checking each node's permission live, then binds typed arguments and invokes. */
+    private boolean execute(CommandNode root, CommandSender sender, String label, String[] args) {
+        CommandNode node = root;
+        int i = 0;
+        while (true) {
+            if (!authorized(sender, node)) {
+                send(sender, i18n.component(sender, "command.no_permission"));
+                return true;
+            }
+            if (i == args.length) break;
+            CommandNode child = node.child(args[i]);
+            if (child == null) break;
+            node = child;
+            i++;
         }
-        String name = args[0].toLowerCase(Locale.ROOT);
-        Method m = subs.get(name);
-        if (m == null) {
-            send(sender, i18n.component(sender, "command.unknown", I18n.vars("sub", name)));
+
+        CompiledMethod handler = node.handler;
+        if (handler == null) {
+            if (i == args.length) {
+                send(sender, i18n.component(sender, "command.usage", Arg.text("label", "/" + label)));
+            } else {
+                send(sender, i18n.component(sender, "command.unknown", Arg.text("sub", args[i].toLowerCase(Locale.ROOT))));
+            }
             return true;
         }
-        Subcommand sc = m.getAnnotation(Subcommand.class);
-        if (sc != null && !sc.permission().isBlank() && !sender.hasPermission(sc.permission())) {
-            send(sender, i18n.component(sender, "command.no_permission"));
+        if (!handler.accepts(sender)) {
+            send(sender, i18n.component(sender, "command.player_only"));
             return true;
         }
         try {
-            m.setAccessible(true);
-            Class<?>[] pt = m.getParameterTypes();
-            Object[] call;
-            if (pt.length == 2 && pt[0].isAssignableFrom(Player.class) && sender instanceof Player p) {
-                call = new Object[]{p, Arrays.copyOfRange(args, 1, args.length)};
-            } else if (pt.length == 2 && pt[0].isAssignableFrom(CommandSender.class)) {
-                call = new Object[]{sender, Arrays.copyOfRange(args, 1, args.length)};
-            } else if (pt.length == 1 && pt[0].isAssignableFrom(Player.class) && sender instanceof Player p) {
-                call = new Object[]{p};
-            } else if (pt.length == 1 && pt[0].isAssignableFrom(CommandSender.class)) {
-                call = new Object[]{sender};
-            } else if (pt.length == 0) {
-                call = new Object[]{};
-            } else {
-                send(sender, i18n.component(sender, "command.bad_signature"));
+            Object[] call = handler.bind(sender, args, i);
+            if (call == null) {
+                send(sender, i18n.component(sender, "command.usage", Arg.text("label", usage(label, node))));
                 return true;
             }
-            m.invoke(instance, call);
-        } catch (Exception ex) {
+            if (node.async) executeAsync(handler, call, sender);
+            else deliver(sender, handler.invoke(call));
+        } catch (ArgumentParseException ex) {
+            send(sender, i18n.component(sender, "command.invalid_argument",
+                    Arg.text("input", ex.input()), Arg.text("type", ex.type())));
+        } catch (Throwable ex) {
             plugin.getSLF4JLogger().error("Command execution failed", ex);
             send(sender, i18n.component(sender, "command.error"));
         }
         return true;
     }
 
+    /**
+     * Serves completions for our commands off the main thread. Leaves the event alone (so the
+     * main-thread {@code Command#tabComplete} fallback runs) if the path needs a main-thread completer.
+     */
+    private void onAsyncTabComplete(AsyncTabCompleteEvent e) {
+        if (e.isHandled() || !e.isCommand()) return;
+        String buffer = e.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int space = buffer.indexOf(' ', start);
+        if (space < 0) return;                                   // still typing the label
+        CommandNode root = roots.get(buffer.substring(start, space).toLowerCase(Locale.ROOT));
+        if (root == null) return;
+        List<String> out = complete(root, e.getSender(), buffer.substring(space + 1).split(" ", -1), true);
+        if (out == null) return;
+        e.setCompletions(out);
+        e.setHandled(true);
+    }
+
+    /**
+     * Suggests the visible child literals at the cursor plus either the node's {@code @TabComplete}
+     * result or the suggestions of the parser for the argument under the cursor. Results are cached
+     * per sender and input for a short time.
+     * @return null if {@code async} and the completer on the path is not marked async
+     */
     @SuppressWarnings("unchecked")
-    private List<String> tabComplete(Object instance, Map<String, Method> subs, Map<String, Method> tabs,
-                                     CommandSender sender, String label, String[] args) {
+    private List<String> complete(CommandNode root, CommandSender sender, String[] args, boolean async) {
         try {
-            if (args.length <= 1) {
-                List<String> base = new ArrayList<>();
-                for (var e : subs.entrySet()) {
-                    Method m = e.getValue();
-                    Subcommand sc = m.getAnnotation(Subcommand.class);
-                    if (sc != null && !sc.permission().isBlank() && !sender.hasPermission(sc.permission())) continue;
-                    base.add(e.getKey());
+            if (!permitted(sender, root)) return Collections.emptyList();
+            String token = args.length == 0 ? "" : args[args.length - 1];
+            CommandNode node = root;
+            int i = 0;
+            for (; i < args.length - 1; i++) {
+                CommandNode child = node.child(args[i]);
+                if (child == null || !permitted(sender, child)) break;
+                node = child;
+            }
+            CompiledMethod completer = node.completer;
+            if (async && completer != null && !node.completerAsync) return null;
+
+            String head = head(root, args);
+            List<String> cached = suggestions.get(sender, head, token);
+            if (cached != null) return cached;
+
+            List<String> out = new ArrayList<>();
+            if (i >= args.length - 1) {
+                for (String name : permissions.visible(sender, node)) {
+                    if (ArgumentParsers.startsWith(name, token)) out.add(name);
                 }
-                base.sort(String::compareToIgnoreCase);
-                return filterPrefix(base, args.length == 0 ? "" : args[0]);
             }
-            String key = args[0].toLowerCase(Locale.ROOT);
-            Method t = tabs.getOrDefault(key, tabs.get(""));
-            if (t == null) return Collections.emptyList();
-
-            t.setAccessible(true);
-            Class<?>[] pt = t.getParameterTypes();
-            Object res;
-            if (pt.length == 2 && pt[0].isAssignableFrom(Player.class) && sender instanceof Player p) {
-                res = t.invoke(instance, p, args);
-            } else if (pt.length == 2 && pt[0].isAssignableFrom(CommandSender.class)) {
-                res = t.invoke(instance, sender, args);
-            } else if (pt.length == 1 && pt[0].isAssignableFrom(Player.class) && sender instanceof Player p) {
-                res = t.invoke(instance, p);
-            } else if (pt.length == 1 && pt[0].isAssignableFrom(CommandSender.class)) {
-                res = t.invoke(instance, sender);
-            } else {
-                res = Collections.emptyList();
+            if (completer != null) {
+                if (completer.accepts(sender)) {
+                    Object res = completer.invoke(completer.bind(sender, args, 0));
+                    if (res instanceof List<?> list) out.addAll(ArgumentParsers.filter((List<String>) list, token));
+                }
+            } else if (node.handler != null && node.handler.accepts(sender)) {
+                int index = Math.max(0, args.length - 1) - i;
+                if (index < node.handler.parsers.length) {
+                    String name = node.handler.indexes[index];
+                    SuggestionIndex idx = name == null ? null : indexes.get(name);
+                    out.addAll(idx != null ? idx.suggest(token) : node.handler.parsers[index].suggest(sender, token));
+                }
             }
-            return (res instanceof List) ? (List<String>) res : Collections.emptyList();
-        } catch (Exception e) {
+            suggestions.put(sender, head, token, out, completer == null);
+            return out;
+        } catch (Throwable e) {
             plugin.getSLF4JLogger().warn("TabComplete error", e);
             return Collections.emptyList();
         }
     }
 
-    private static List<String> filterPrefix(List<String> list, String prefix) {
-        if (prefix == null || prefix.isEmpty()) return list;
-        String p = prefix.toLowerCase(Locale.ROOT);
-        List<String> out = new ArrayList<>(list.size());
-        for (String s : list) if (s.toLowerCase(Locale.ROOT).startsWith(p)) out.add(s);
+    /** Cache key part: root label plus every token before the one being typed. */
+    private static String head(CommandNode root, String[] args) {
+        if (args.length <= 1) return root.name;
+        StringBuilder sb = new StringBuilder(root.name);
+        for (int i = 0; i < args.length - 1; i++) sb.append(' ').append(args[i]);
+        return sb.toString();
+    }
+
+    private void listenAsyncTabComplete(EventBus bus) {
+        try {
+            bus.subscribe(AsyncTabCompleteEvent.class, EventPriority.NORMAL, this::onAsyncTabComplete);
+        } catch (NoClassDefFoundError e) {
+            plugin.getSLF4JLogger().info("AsyncTabCompleteEvent unavailable, tab completion stays on the main thread");
+        }
+    }
+
+    private static List<String> labels(gg.nextforge.core.commands.annotation.Command meta) {
+        List<String> out = new ArrayList<>();
+        out.add(meta.name().toLowerCase(Locale.ROOT));
+        for (String a : meta.aliases()) out.add(a.toLowerCase(Locale.ROOT));
         return out;
     }
 
+    /**
+     * Invokes on the I/O pool (async subcommands are for blocking work; arguments were parsed on the
+     * caller) and delivers the result on main. The in-flight slot is freed however the call ends,
+     * including a rejected hand-off or a closed scheduler.
+     */
+    private void executeAsync(CompiledMethod handler, Object[] call, CommandSender sender) {
+        Object id = sender instanceof Player p ? p.getUniqueId() : sender.getName();
+        AtomicInteger count = inFlight.computeIfAbsent(id, k -> new AtomicInteger());
+        if (count.incrementAndGet() > maxAsyncPerSender) {
+            release(id, count);
+            send(sender, i18n.component(sender, "command.busy"));
+            return;
+        }
+        if (scheduler == null) {
+            try { deliver(sender, handler.invoke(call)); }
+            catch (Throwable t) { fail(sender, t); }
+            finally { release(id, count); }
+            return;
+        }
+        CompletableFuture<Object> result = scheduler.supplyIo(() -> {
+                    try { return handler.invoke(call); }
+                    catch (Throwable t) { throw new CompletionException(t); }
+                })
+                .thenCompose(CommandManager::flatten);
+        result.whenComplete((r, t) -> release(id, count));
+        result.whenCompleteAsync((r, t) -> {
+            if (t != null) fail(sender, t);
+            else deliver(sender, r);
+        }, scheduler.syncExecutor());
+    }
+
+    /** Sends a returned Component now, or a returned future's Component once it completes (on main). */
+    private void deliver(CommandSender sender, Object result) {
+        if (result instanceof Component c) {
+            if (!(sender instanceof Player p) || p.isOnline()) send(sender, c);
+        } else if (result instanceof CompletionStage<?> stage) {
+            Executor main = scheduler != null ? scheduler.syncExecutor() : Runnable::run;
+            stage.whenCompleteAsync((r, t) -> {
+                if (t != null) fail(sender, t);
+                else deliver(sender, r);
+            }, main);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletionStage<Object> flatten(Object result) {
+        return result instanceof CompletionStage<?> stage ? (CompletionStage<Object>) stage : CompletableFuture.completedFuture(result);
+    }
+
+    private void fail(CommandSender sender, Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        plugin.getSLF4JLogger().error("Command execution failed", cause);
+        send(sender, i18n.component(sender, "command.error"));
+    }
+
+    private void release(Object id, AtomicInteger count) {
+        if (count.decrementAndGet() <= 0) inFlight.remove(id, count);
+    }
+
+    /** Cached decision; for tab completion only. */
+    private boolean permitted(CommandSender sender, CommandNode node) {
+        return permissions.allowed(sender, node);
+    }
+
+    /** Live decision for execution: a revoke applies to the very next invocation. */
+    private static boolean authorized(CommandSender sender, CommandNode node) {
+        return node.permission.isBlank() || sender.hasPermission(node.permission);
+    }
+
+    private static String usage(String label, CommandNode node) {
+        StringBuilder sb = new StringBuilder("/").append(label);
+        if (!node.path.isEmpty()) sb.append(' ').append(node.path);
+        if (!node.handler.usage.isEmpty()) sb.append(' ').append(node.handler.usage);
+        return sb.toString();
+    }
+
+    /** Delivers to this sender only. */
     private void send(CommandSender sender, Component component) {
         try {
             if (sender instanceof org.bukkit.command.ConsoleCommandSender) {
                 sender.sendMessage(net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer.plainText().serialize(component));
             } else {
-                audiences.sendMessage(component);
+                sender.sendMessage(component);
             }
         } catch (Throwable t) {
             sender.sendMessage(component.toString());
         }
     }
 
-    /* ---------- reflective command ---------- */
+    /* ---------- dynamic command ---------- */
 
-    private static final class ReflectiveCommand extends org.bukkit.command.Command implements PluginIdentifiableCommand {
-        private final String permission;
+    private static final class DynamicCommand extends org.bukkit.command.Command implements PluginIdentifiableCommand {
         private final Exec exec;
         private final Tab tab;
-        private final Plugin plugin;
 
         interface Exec { boolean call(CommandSender sender, String label, String[] args); }
         interface Tab { List<String> call(CommandSender sender, String label, String[] args); }
 
-        ReflectiveCommand(String name, String description, String permission, List<String> aliases,
-                          Exec exec, Tab tab) {
+        DynamicCommand(String name, String description, List<String> aliases, Exec exec, Tab tab) {
             super(name);
             this.setDescription(description == null ? "" : description);
             this.setAliases(aliases == null ? List.of() : aliases);
-            this.permission = (permission == null ? "" : permission);
             this.exec = exec;
             this.tab = tab;
-            this.plugin = Bukkit.getPluginManager().getPlugin(Bukkit.getServer().getPluginManager().getPlugins()[0].getName()); // fallback; replaced below via setPlugin
         }
 
         @Override public boolean execute(CommandSender sender, String label, String[] args) {
-            if (permission != null && !permission.isBlank() && !sender.hasPermission(permission)) {
-                sender.sendMessage("No permission.");
-                return true;
-            }
             return exec.call(sender, label, args);
         }
 
@@ -0,0 +1,57 @@
+package gg.nextforge.core.commands;
+
+import java.util.*;
+
+/**
+ * One literal of a compiled command tree; the root is the command label itself. Built at registration
+ * and never mutated after {@link #freeze()}, so it is safe to read from any thread.
+ */
+final class CommandNode {
+
+    final String name;                                        // lowercase literal
+    final String path;                                        // literals below the root, e.g. "guild invite"
+    String permission = "";
+    CompiledMethod handler;                                   // @Subcommand, may be null
+    boolean async;                                            // @Subcommand(async = true)
+    CompiledMethod completer;                                 // @TabComplete, may be null
+    boolean completerAsync;                                   // @TabComplete(async = true)
+    private final Map<String, CommandNode> children = new HashMap<>();
+    private String[] childNames = new String[0];              // sorted, for suggestions
+
+    CommandNode(String name, String path) {
+        this.name = name.toLowerCase(Locale.ROOT);
+        this.path = path;
+    }
+
+    /** Child for a token, ignoring case; no allocation for lowercase input. */
+    CommandNode child(String token) {
+        return children.isEmpty() ? null : children.get(token.toLowerCase(Locale.ROOT));
+    }
+
+    /** Node for a space-separated path below this one, created on demand. */
+    CommandNode resolve(String subPath) {
+        CommandNode node = this;
+        for (String literal : subPath.trim().split("\\s+")) {
+            if (literal.isEmpty()) continue;
+            String key = literal.toLowerCase(Locale.ROOT);
+            CommandNode parent = node;
+            node = node.children.computeIfAbsent(key,
+                    k -> new CommandNode(k, parent.path.isEmpty() ? k : parent.path + " " + k));
+        }
+        return node;
+    }
+
+    Collection<CommandNode> children() {
+        return children.values();
+    }
+
+    String[] childNames() {
+        return childNames;
+    }
+
+    void freeze() {
+        childNames = children.keySet().toArray(new String[0]);
+        Arrays.sort(childNames);
+        for (CommandNode c : children.values()) c.freeze();
+    }
+}
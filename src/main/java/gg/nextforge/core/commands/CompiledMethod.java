@@ -0,0 +1,113 @@
+package gg.nextforge.core.commands;
+
+import gg.nextforge.core.commands.annotation.Suggest;
+import gg.nextforge.core.commands.argument.ArgumentParseException;
+import gg.nextforge.core.commands.argument.ArgumentParser;
+import gg.nextforge.core.commands.argument.ArgumentParsers;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A {@code @Subcommand} or {@code @TabComplete} method, compiled once at registration into its sender kind,
+ * argument parsers and a bound, spread {@link MethodHandle} of type {@code (Object[])Object}.
+ * <p>
+ * Accepted parameters: an optional leading sender ({@code CommandSender}-compatible, or {@code Player}
+ * for player-only commands), then typed arguments with a registered parser, and optionally a trailing
+ * {@code String[]} that receives the remaining tokens.
+ */
+final class CompiledMethod {
+
+    enum SenderKind { NONE, SENDER, PLAYER }
+
+    final SenderKind sender;
+    final ArgumentParser<?>[] parsers;
+    final String[] indexes;                                  // @Suggest index name per typed parameter, or null
+    final boolean rest;                                      // trailing String[]
+    final String usage;                                      // e.g. "<int> <player> [args...]"
+    private final int arity;
+    private final MethodHandle invoker;
+
+    private CompiledMethod(SenderKind sender, ArgumentParser<?>[] parsers, String[] indexes, boolean rest, String usage,
+                           MethodHandle invoker) {
+        this.sender = sender;
+        this.parsers = parsers;
+        this.indexes = indexes;
+        this.rest = rest;
+        this.usage = usage;
+        this.arity = (sender == SenderKind.NONE ? 0 : 1) + parsers.length + (rest ? 1 : 0);
+        this.invoker = invoker;
+    }
+
+    static CompiledMethod compile(Object instance, Method m, ArgumentParsers registry) {
+        Class<?>[] pt = m.getParameterTypes();
+        int i = 0;
+        SenderKind kind = SenderKind.NONE;
+        if (pt.length > 0 && pt[0].isAssignableFrom(CommandSender.class)) {
+            kind = SenderKind.SENDER;
+            i++;
+        } else if (pt.length > 0 && pt[0].isAssignableFrom(Player.class)) {
+            kind = SenderKind.PLAYER;
+            i++;
+        }
+        boolean rest = pt.length > i && pt[pt.length - 1] == String[].class;
+        int typed = pt.length - i - (rest ? 1 : 0);
+
+        ArgumentParser<?>[] parsers = new ArgumentParser<?>[typed];
+        String[] indexes = new String[typed];
+        Parameter[] params = m.getParameters();
+        StringBuilder usage = new StringBuilder();
+        for (int k = 0; k < typed; k++) {
+            Class<?> type = pt[i + k];
+            parsers[k] = registry.get(type).orElseThrow(() -> new IllegalArgumentException(
+                    "No argument parser for " + type.getName() + " in " + m));
+            Suggest suggest = params[i + k].getAnnotation(Suggest.class);
+            if (suggest != null) indexes[k] = suggest.value();
+            if (usage.length() > 0) usage.append(' ');
+            usage.append('<').append(type.getSimpleName().toLowerCase(Locale.ROOT)).append('>');
+        }
+        if (rest) usage.append(usage.length() > 0 ? " " : "").append("[args...]");
+
+        try {
+            m.setAccessible(true);
+            MethodHandle h = MethodHandles.lookup().unreflect(m);
+            if (!Modifier.isStatic(m.getModifiers())) h = h.bindTo(instance);
+            h = h.asSpreader(Object[].class, pt.length).asType(MethodType.methodType(Object.class, Object[].class));
+            return new CompiledMethod(kind, parsers, indexes, rest, usage.toString(), h);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot compile command method " + m, e);
+        }
+    }
+
+    /** False if the method needs a player and {@code s} is not one. */
+    boolean accepts(CommandSender s) {
+        return sender != SenderKind.PLAYER || s instanceof Player;
+    }
+
+    /**
+     * Builds the call array from the tokens starting at {@code from}.
+     * @return null if there are fewer tokens than typed parameters
+     */
+    Object[] bind(CommandSender s, String[] args, int from) throws ArgumentParseException {
+        if (args.length - from < parsers.length) return null;
+        Object[] call = new Object[arity];
+        int c = 0;
+        if (sender != SenderKind.NONE) call[c++] = s;
+        int a = from;
+        for (ArgumentParser<?> p : parsers) call[c++] = p.parse(s, args[a++]);
+        if (rest) call[c] = a == 0 ? args : Arrays.copyOfRange(args, a, args.length);
+        return call;
+    }
+
+    Object invoke(Object[] call) throws Throwable {
+        return (Object) invoker.invokeExact(call);
+    }
+}
@@ -0,0 +1,85 @@
+package gg.nextforge.core.commands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission decisions per sender and node, plus the visible child literals derived from them. Used for
+ * tab completion only; executing a command always asks the sender directly.
+ * <p>
+ * An entry lives until the sender's permission state is invalidated (join, quit, world change or an
+ * explicit {@link CommandManager#invalidatePermissions}) and at most {@link #TTL_NANOS}, which bounds
+ * staleness for changes no event reports. Invalidation swaps the whole state, so a lookup racing
+ * with it writes into the discarded one. Only players (by UUID) and the console are cached; other
+ * senders (command blocks, proxied senders) share names, so they are evaluated every time.
+ */
+final class PermissionCache {
+
+    static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final class State {
+        final long expiresAt = System.nanoTime() + TTL_NANOS;
+        final Map<CommandNode, Boolean> allowed = new ConcurrentHashMap<>();
+        final Map<CommandNode, String[]> visible = new ConcurrentHashMap<>();
+    }
+
+    private final Map<Object, State> states = new ConcurrentHashMap<>();
+
+    /** True if the node has no permission or the sender holds it. */
+    boolean allowed(CommandSender sender, CommandNode node) {
+        if (node.permission.isBlank()) return true;
+        State state = state(sender);
+        if (state == null) return sender.hasPermission(node.permission);
+        return state.allowed.computeIfAbsent(node, n -> sender.hasPermission(n.permission));
+    }
+
+    /** Sorted child literals of {@code node} the sender may use; computed once per permission state. */
+    String[] visible(CommandSender sender, CommandNode node) {
+        String[] all = node.childNames();
+        if (all.length == 0) return all;
+        State state = state(sender);
+        String[] cached = state != null ? state.visible.get(node) : null;
+        if (cached != null) return cached;
+        List<String> out = new ArrayList<>(all.length);
+        for (String name : all) {
+            if (allowed(sender, node.child(name))) out.add(name);
+        }
+        String[] names = out.size() == all.length ? all : out.toArray(new String[0]);
+        if (state != null) state.visible.put(node, names);
+        return names;
+    }
+
+    void invalidate(CommandSender sender) {
+        Object id = id(sender);
+        if (id != null) states.remove(id);
+    }
+
+    void clear() {
+        states.clear();
+    }
+
+    /* ---------------- intern ---------------- */
+
+    /** @return null for senders that are not cached */
+    private State state(CommandSender sender) {
+        Object id = id(sender);
+        if (id == null) return null;
+        State s = states.get(id);
+        if (s != null && System.nanoTime() - s.expiresAt <= 0L) return s;
+        return states.compute(id, (k, cur) -> cur == null || System.nanoTime() - cur.expiresAt > 0L ? new State() : cur);
+    }
+
+    private static final Object CONSOLE = new Object();
+
+    private static Object id(CommandSender sender) {
+        if (sender instanceof Player p) return p.getUniqueId();
+        return sender instanceof ConsoleCommandSender ? CONSOLE : null;
+    }
+}
@@ -0,0 +1,73 @@
+package gg.nextforge.core.commands;
+
+import gg.nextforge.core.commands.argument.ArgumentParsers;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Short-lived tab suggestions per sender and input head (the buffer up to the token being typed).
+ * <p>
+ * Prefix-filtered suggestions (literals, parsers, indexes) also serve longer tokens at the same
+ * position by filtering the cached list, so typing "/warp sp", "/warp spa", "/warp spaw" computes
+ * them once. Other results (a {@code @TabComplete} method may page, fuzzy-match or look up by the
+ * typed text) only serve the exact token. Like {@link PermissionCache}, only players and the console
+ * are cached.
+ */
+final class SuggestionCache {
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final int SWEEP_EVERY = 256;
+
+    private record Key(Object sender, String head) {}
+    private record Entry(String token, List<String> suggestions, boolean narrows, long expiresAt) {}
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger puts = new AtomicInteger();
+
+    /** Cached suggestions for {@code token}, or null. */
+    List<String> get(CommandSender sender, String head, String token) {
+        Object id = id(sender);
+        if (id == null) return null;
+        Entry e = entries.get(new Key(id, head));
+        if (e == null || System.nanoTime() - e.expiresAt > 0L) return null;
+        if (!e.narrows) return token.equals(e.token) ? e.suggestions : null;
+        if (!ArgumentParsers.startsWith(token, e.token)) return null;
+        return token.length() == e.token.length() ? e.suggestions : ArgumentParsers.filter(e.suggestions, token);
+    }
+
+    /** @param narrows whether {@code suggestions} is a prefix filter of a token-independent list */
+    void put(CommandSender sender, String head, String token, List<String> suggestions, boolean narrows) {
+        Object id = id(sender);
+        if (id == null) return;
+        entries.put(new Key(id, head), new Entry(token, List.copyOf(suggestions), narrows, System.nanoTime() + TTL_NANOS));
+        if (puts.incrementAndGet() % SWEEP_EVERY == 0) {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> now - e.expiresAt > 0L);
+        }
+    }
+
+    /** Drops everything cached for one sender. */
+    void invalidate(CommandSender sender) {
+        Object id = id(sender);
+        if (id != null) entries.keySet().removeIf(k -> k.sender.equals(id));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private static final Object CONSOLE = new Object();
+
+    /** Null for senders that may share a name (command blocks, proxied senders). */
+    private static Object id(CommandSender sender) {
+        if (sender instanceof Player p) return p.getUniqueId();
+        return sender instanceof ConsoleCommandSender ? CONSOLE : null;
+    }
+}
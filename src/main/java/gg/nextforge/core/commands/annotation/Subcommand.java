@@ -6,7 +6,8 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Subcommand {
-    String value();              // e.g. "reload", "hello"
+    String value();              // e.g. "reload", "hello", nested: "guild invite"; "" = the command itself
     String permission() default "";
     String descriptionKey() default ""; // i18n key (optional)
+    boolean async() default false; // run on the I/O pool (blocking work); a returned Component/CompletableFuture is delivered on main
 }
@@ -0,0 +1,10 @@
+package gg.nextforge.core.commands.annotation;
+
+import java.lang.annotation.*;
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Suggest {
+    String value(); // name of a SuggestionIndex registered at the CommandManager, e.g. "players"
+}
@@ -7,4 +7,5 @@ import java.lang.annotation.*;
 @Target(ElementType.METHOD)
 public @interface TabComplete {
     String value() default ""; // "" = root, or sub-name like "hello"
+    boolean async() default false; // thread-safe: may run off the main thread (AsyncTabCompleteEvent)
 }
@@ -0,0 +1,22 @@
+package gg.nextforge.core.commands.argument;
+
+/** A token did not match the expected argument type; reported via {@code command.invalid_argument}. */
+public class ArgumentParseException extends Exception {
+
+    private final String input;
+    private final String type;
+
+    public ArgumentParseException(String input, String type) {
+        super("Invalid " + type + ": " + input, null, false, false);
+        this.input = input;
+        this.type = type;
+    }
+
+    public String input() {
+        return input;
+    }
+
+    public String type() {
+        return type;
+    }
+}
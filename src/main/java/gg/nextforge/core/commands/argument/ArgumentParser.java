@@ -0,0 +1,17 @@
+package gg.nextforge.core.commands.argument;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+/** Turns one command token into a typed method argument; reused by every command taking that type. */
+@FunctionalInterface
+public interface ArgumentParser<T> {
+
+    T parse(CommandSender sender, String input) throws ArgumentParseException;
+
+    /** Tab suggestions for a partial token; may be called off the main thread. */
+    default List<String> suggest(CommandSender sender, String prefix) {
+        return List.of();
+    }
+}
@@ -0,0 +1,138 @@
+package gg.nextforge.core.commands.argument;
+
+import gg.nextforge.core.commands.suggest.SuggestionIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parser registry by parameter type. Built in: {@code String}, {@code int}, {@code long}, {@code double},
+ * {@code float}, {@code boolean} (and their boxes), {@code UUID}, {@code Player}, {@code World}; any enum
+ * gets a case-insensitive parser on first use.
+ */
+public final class ArgumentParsers {
+
+    private static final List<String> BOOLEANS = List.of("false", "true");
+
+    private final Map<Class<?>, ArgumentParser<?>> parsers = new ConcurrentHashMap<>();
+
+    public ArgumentParsers() {
+        register(String.class, (s, in) -> in);
+        register(int.class, (s, in) -> {
+            try { return Integer.parseInt(in); } catch (NumberFormatException e) { throw new ArgumentParseException(in, "int"); }
+        });
+        register(long.class, (s, in) -> {
+            try { return Long.parseLong(in); } catch (NumberFormatException e) { throw new ArgumentParseException(in, "long"); }
+        });
+        register(double.class, (s, in) -> {
+            try { return Double.parseDouble(in); } catch (NumberFormatException e) { throw new ArgumentParseException(in, "number"); }
+        });
+        register(float.class, (s, in) -> {
+            try { return Float.parseFloat(in); } catch (NumberFormatException e) { throw new ArgumentParseException(in, "number"); }
+        });
+        register(boolean.class, new ArgumentParser<>() {
+            @Override public Boolean parse(CommandSender s, String in) throws ArgumentParseException {
+                return switch (in.toLowerCase(Locale.ROOT)) {
+                    case "true", "yes", "on" -> true;
+                    case "false", "no", "off" -> false;
+                    default -> throw new ArgumentParseException(in, "boolean");
+                };
+            }
+            @Override public List<String> suggest(CommandSender s, String prefix) {
+                return filter(BOOLEANS, prefix);
+            }
+        });
+        register(UUID.class, (s, in) -> {
+            try { return UUID.fromString(in); } catch (IllegalArgumentException e) { throw new ArgumentParseException(in, "uuid"); }
+        });
+        register(Player.class, player(null));
+        register(World.class, (s, in) -> {
+            World w = Bukkit.getWorld(in);
+            if (w == null) throw new ArgumentParseException(in, "world");
+            return w;
+        });
+        alias(Integer.class, int.class);
+        alias(Long.class, long.class);
+        alias(Double.class, double.class);
+        alias(Float.class, float.class);
+        alias(Boolean.class, boolean.class);
+    }
+
+    /** Registers or replaces the parser for {@code type}. */
+    public <T> void register(Class<T> type, ArgumentParser<? extends T> parser) {
+        parsers.put(Objects.requireNonNull(type, "type"), Objects.requireNonNull(parser, "parser"));
+    }
+
+    /** Parser for {@code type}, if one is registered or can be derived (enums). */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Optional<ArgumentParser<T>> get(Class<T> type) {
+        ArgumentParser<?> p = parsers.get(type);
+        if (p == null && type.isEnum()) p = parsers.computeIfAbsent(type, t -> new EnumParser(t));
+        return Optional.ofNullable((ArgumentParser<T>) p);
+    }
+
+    /** Parser for online players by exact name; suggests from {@code names}, or scans online players if null. */
+    public static ArgumentParser<Player> player(SuggestionIndex names) {
+        return new ArgumentParser<>() {
+            @Override public Player parse(CommandSender s, String in) throws ArgumentParseException {
+                Player p = Bukkit.getPlayerExact(in);
+                if (p == null) throw new ArgumentParseException(in, "player");
+                return p;
+            }
+            @Override public List<String> suggest(CommandSender s, String prefix) {
+                if (names != null) return names.suggest(prefix);
+                List<String> out = new ArrayList<>();
+                for (Player p : Bukkit.getOnlinePlayers()) if (startsWith(p.getName(), prefix)) out.add(p.getName());
+                return out;
+            }
+        };
+    }
+
+    /** Case-insensitive prefix match without allocating. */
+    public static boolean startsWith(String candidate, String prefix) {
+        return candidate.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /** Candidates starting with {@code prefix}, ignoring case, in their original order. */
+    public static List<String> filter(Collection<String> candidates, String prefix) {
+        if (prefix == null || prefix.isEmpty()) return candidates instanceof List<String> l ? l : new ArrayList<>(candidates);
+        List<String> out = new ArrayList<>();
+        for (String c : candidates) if (startsWith(c, prefix)) out.add(c);
+        return out;
+    }
+
+    /* ---------------- intern ---------------- */
+
+    private void alias(Class<?> boxed, Class<?> primitive) {
+        parsers.put(boxed, parsers.get(primitive));
+    }
+
+    private static final class EnumParser<E extends Enum<E>> implements ArgumentParser<E> {
+        private final Map<String, E> byName = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final String type;
+
+        EnumParser(Class<E> type) {
+            this.type = type.getSimpleName().toLowerCase(Locale.ROOT);
+            for (E e : type.getEnumConstants()) {
+                String n = e.name().toLowerCase(Locale.ROOT);
+                byName.put(n, e);
+                names.add(n);
+            }
+        }
+
+        @Override public E parse(CommandSender s, String in) throws ArgumentParseException {
+            E e = byName.get(in.toLowerCase(Locale.ROOT));
+            if (e == null) throw new ArgumentParseException(in, type);
+            return e;
+        }
+
+        @Override public List<String> suggest(CommandSender s, String prefix) {
+            return filter(names, prefix);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package gg.nextforge.core.commands.suggest;
+
+import gg.nextforge.core.events.EventBus;
+import gg.nextforge.core.events.EventSubscription;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.List;
+
+/** Names of online players, kept current from join and quit events; safe to query off the main thread. */
+public final class OnlinePlayerIndex implements SuggestionIndex, AutoCloseable {
+
+    private final PrefixTrie names = new PrefixTrie();
+    private final EventSubscription<PlayerJoinEvent> join;
+    private final EventSubscription<PlayerQuitEvent> quit;
+
+    public OnlinePlayerIndex(EventBus bus) {
+        join = bus.subscribe(PlayerJoinEvent.class, EventPriority.MONITOR, e -> names.add(e.getPlayer().getName()));
+        quit = bus.subscribe(PlayerQuitEvent.class, EventPriority.MONITOR, e -> names.remove(e.getPlayer().getName()));
+        for (Player p : Bukkit.getOnlinePlayers()) names.add(p.getName());    // players online before enable/reload
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return names.suggest(prefix, limit);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public void close() {
+        join.unsubscribe();
+        quit.unsubscribe();
+        names.clear();
+    }
+}
@@ -0,0 +1,167 @@
+package gg.nextforge.core.commands.suggest;
+
+import java.util.*;
+
+/**
+ * Case-insensitive prefix trie keeping the original spelling of its entries.
+ * <p>
+ * Lookups cost O(prefix + results) regardless of the number of entries and never block: updates copy
+ * the nodes on the path to the changed entry and publish a new root with one volatile write. Writers
+ * are serialized. Results come back in case-insensitive lexicographic order.
+ */
+public final class PrefixTrie implements SuggestionIndex {
+
+    private static final Node EMPTY = new Node(new char[0], new Node[0], new String[0]);
+    private static final Node EMPTY_MARKER = new Node(new char[0], new Node[0], new String[0]); // "delete emptied this node"
+
+    private volatile Node root = EMPTY;
+    private volatile int size;
+
+    /** @return false if the exact entry is already present */
+    public synchronized boolean add(String value) {
+        Node r = insert(root, key(value), 0, value);
+        if (r == null) return false;
+        root = r;
+        size++;
+        return true;
+    }
+
+    public synchronized void addAll(Collection<String> values) {
+        for (String v : values) add(v);
+    }
+
+    /** @return false if the exact entry was not present */
+    public synchronized boolean remove(String value) {
+        Node r = delete(root, key(value), 0, value);
+        if (r == null) return false;
+        root = r == EMPTY_MARKER ? EMPTY : r;
+        size--;
+        return true;
+    }
+
+    public synchronized void clear() {
+        root = EMPTY;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String value) {
+        Node n = find(root, key(value));
+        if (n == null) return false;
+        for (String v : n.values) if (v.equals(value)) return true;
+        return false;
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        Node n = find(root, key(prefix));
+        if (n == null || limit <= 0) return List.of();
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+        collect(n, out, limit);
+        return out;
+    }
+
+    /* ---------------- intern ---------------- */
+
+    /** Immutable once published; children sorted by key. */
+    private static final class Node {
+        final char[] keys;
+        final Node[] kids;
+        final String[] values;                                   // entries whose lowercase form ends here
+
+        Node(char[] keys, Node[] kids, String[] values) {
+            this.keys = keys;
+            this.kids = kids;
+            this.values = values;
+        }
+
+        boolean isEmpty() { return keys.length == 0 && values.length == 0; }
+    }
+
+    private static String key(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    private static Node find(Node n, String key) {
+        for (int i = 0; i < key.length() && n != null; i++) {
+            int idx = Arrays.binarySearch(n.keys, key.charAt(i));
+            n = idx < 0 ? null : n.kids[idx];
+        }
+        return n;
+    }
+
+    /** Depth first in key order; stops as soon as {@code limit} entries are collected. */
+    private static boolean collect(Node n, List<String> out, int limit) {
+        for (String v : n.values) {
+            out.add(v);
+            if (out.size() >= limit) return true;
+        }
+        for (Node kid : n.kids) if (collect(kid, out, limit)) return true;
+        return false;
+    }
+
+    /** Copy of {@code n} with {@code value} added, or null if it was already there. */
+    private static Node insert(Node n, String key, int depth, String value) {
+        if (depth == key.length()) {
+            for (String v : n.values) if (v.equals(value)) return null;
+            String[] values = Arrays.copyOf(n.values, n.values.length + 1);
+            values[n.values.length] = value;
+            return new Node(n.keys, n.kids, values);
+        }
+        char c = key.charAt(depth);
+        int idx = Arrays.binarySearch(n.keys, c);
+        if (idx >= 0) {
+            Node kid = insert(n.kids[idx], key, depth + 1, value);
+            if (kid == null) return null;
+            Node[] kids = n.kids.clone();
+            kids[idx] = kid;
+            return new Node(n.keys, kids, n.values);
+        }
+        int at = -idx - 1;
+        char[] keys = new char[n.keys.length + 1];
+        Node[] kids = new Node[n.kids.length + 1];
+        System.arraycopy(n.keys, 0, keys, 0, at);
+        System.arraycopy(n.kids, 0, kids, 0, at);
+        keys[at] = c;
+        kids[at] = insert(EMPTY, key, depth + 1, value);
+        System.arraycopy(n.keys, at, keys, at + 1, n.keys.length - at);
+        System.arraycopy(n.kids, at, kids, at + 1, n.kids.length - at);
+        return new Node(keys, kids, n.values);
+    }
+
+    /** Copy of {@code n} without {@code value} (EMPTY_MARKER if nothing is left), or null if absent. */
+    private static Node delete(Node n, String key, int depth, String value) {
+        Node result;
+        if (depth == key.length()) {
+            int at = -1;
+            for (int i = 0; i < n.values.length; i++) if (n.values[i].equals(value)) at = i;
+            if (at < 0) return null;
+            String[] values = new String[n.values.length - 1];
+            System.arraycopy(n.values, 0, values, 0, at);
+            System.arraycopy(n.values, at + 1, values, at, values.length - at);
+            result = new Node(n.keys, n.kids, values);
+        } else {
+            int idx = Arrays.binarySearch(n.keys, key.charAt(depth));
+            if (idx < 0) return null;
+            Node kid = delete(n.kids[idx], key, depth + 1, value);
+            if (kid == null) return null;
+            if (kid == EMPTY_MARKER) {                            // prune the emptied branch
+                char[] keys = new char[n.keys.length - 1];
+                Node[] kids = new Node[n.kids.length - 1];
+                System.arraycopy(n.keys, 0, keys, 0, idx);
+                System.arraycopy(n.kids, 0, kids, 0, idx);
+                System.arraycopy(n.keys, idx + 1, keys, idx, keys.length - idx);
+                System.arraycopy(n.kids, idx + 1, kids, idx, kids.length - idx);
+                result = new Node(keys, kids, n.values);
+            } else {
+                Node[] kids = n.kids.clone();
+                kids[idx] = kid;
+                result = new Node(n.keys, kids, n.values);
+            }
+        }
+        return result.isEmpty() ? EMPTY_MARKER : result;
+    }
+}
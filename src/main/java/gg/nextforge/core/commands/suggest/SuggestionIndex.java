@@ -0,0 +1,23 @@
+package gg.nextforge.core.commands.suggest;
+
+import java.util.Collection;
+import java.util.List;
+
+/** A source of tab suggestions looked up by prefix; implementations must be safe to query from any thread. */
+@FunctionalInterface
+public interface SuggestionIndex {
+
+    /** Entries starting with {@code prefix} (ignoring case), at most {@code limit}. */
+    List<String> suggest(String prefix, int limit);
+
+    default List<String> suggest(String prefix) {
+        return suggest(prefix, Integer.MAX_VALUE);
+    }
+
+    /** A trie-backed index over a fixed set of options. */
+    static SuggestionIndex of(Collection<String> options) {
+        PrefixTrie trie = new PrefixTrie();
+        trie.addAll(options);
+        return trie;
+    }
+}
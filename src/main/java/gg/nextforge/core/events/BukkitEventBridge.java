@@ -0,0 +1,75 @@
+package gg.nextforge.core.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forwards Bukkit events into an {@link EventBus}, on demand.
+ * <p>
+ * One Bukkit executor is registered per (event type, priority) as soon as the first bus subscriber
+ * for that pair appears, and removed again when the last one leaves. Events nobody subscribed to
+ * (move, physics, …) therefore cost nothing. Bridged events reach subscribers of their exact
+ * registered type, mirroring Bukkit's per-HandlerList semantics.
+ */
+public final class BukkitEventBridge implements EventBus.SubscriptionObserver, AutoCloseable {
+
+    private final Plugin plugin;
+    private final EventBus bus;
+    private final Map<Key, Listener> registered = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public BukkitEventBridge(Plugin plugin, EventBus bus) {
+        this.plugin = plugin;
+        this.bus = bus;
+    }
+
+    /** Starts observing the bus and bridges every Bukkit event type it is already subscribed to. */
+    public void attach() {
+        bus.observer(this);
+        bus.subscribedTypes().forEach((type, priorities) -> {
+            for (EventPriority p : priorities) subscriptionsChanged(type, p);
+        });
+    }
+
+    @Override
+    public synchronized void subscriptionsChanged(Class<?> eventType, EventPriority priority) {
+        if (closed || !Event.class.isAssignableFrom(eventType)) return;
+        Key key = new Key(eventType, priority);
+        boolean wanted = bus.hasSubscribers(eventType, priority);
+        Listener current = registered.get(key);
+
+        if (wanted && current == null) {
+            Listener listener = new Listener() {};
+            try {
+                plugin.getServer().getPluginManager().registerEvent(eventType.asSubclass(Event.class), listener, priority,
+                        (l, event) -> {
+                            if (eventType.isInstance(event)) bus.dispatchExact(eventType, priority, event);
+                        }, plugin, false);
+                registered.put(key, listener);
+            } catch (Exception ex) {
+                // e.g. abstract event types without a HandlerList
+                plugin.getSLF4JLogger().warn("Cannot bridge {} at {} into the EventBus", eventType.getName(), priority, ex);
+            }
+        } else if (!wanted && current != null) {
+            HandlerList.unregisterAll(current);
+            registered.remove(key);
+        }
+    }
+
+    /** Stops observing the bus and removes every Bukkit executor registered by this bridge. */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        bus.observer(null);
+        for (Listener l : registered.values()) HandlerList.unregisterAll(l);
+        registered.clear();
+    }
+
+    private record Key(Class<?> type, EventPriority priority) {}
+}
@@ -0,0 +1,11 @@
+package gg.nextforge.core.events;
+
+/** Where a subscription's handler runs when an event is posted. */
+public enum DispatchMode {
+    /** Inline on the posting thread. */
+    SYNC,
+    /** On the scheduler's async pool (common pool if the bus has no scheduler). */
+    ASYNC,
+    /** On the server main thread via the scheduler's sync queue; inline if already on it. */
+    MAIN_THREAD
+}
@@ -1,64 +1,727 @@
 package gg.nextforge.core.events;
 
+import gg.nextforge.core.scheduler.Scheduler;
 import org.bukkit.event.EventPriority;
 
+import java.lang.invoke.MethodHandles;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-public class EventBus {
+public class EventBus implements AutoCloseable {
 
-    private final Map<Class<?>, List<Subscription<?>>> subscribers = new ConcurrentHashMap<>();
+    private static final Subscription<?>[] NONE = new Subscription<?>[0];
+
+    /** Dispatch order like Bukkit: LOWEST first, MONITOR last, then subscription order. */
+    private static final Comparator<Subscription<?>> ORDER = EventBus::order;
+
+    // exact event type -> immutable, priority-sorted array (replaced on every change)
+    private final Map<Class<?>, Subscription<?>[]> subscribers = new ConcurrentHashMap<>();
+    // exact event type -> key extractor + per-key subscriptions
+    private final Map<Class<?>, KeyedIndex> keyed = new ConcurrentHashMap<>();
+    // posted event class -> resolved handlers of the class and all of its supertypes
+    private final Map<Class<?>, Dispatch> dispatchCache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    // ordering key -> completion of the last postAsync queued for that key
+    private final Map<Object, CompletableFuture<?>> orderedTails = new ConcurrentHashMap<>();
+    // owner (plugin, player UUID, …) -> its scope
+    private final Map<Object, SubscriptionScope> scopes = new ConcurrentHashMap<>();
+    // listener object (by identity) -> scope holding the subscriptions created by register()
+    private final Map<Object, SubscriptionScope> listeners = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Scheduler scheduler;                       // null: no MAIN_THREAD dispatch
+    private final Executor asyncExecutor;
+    private final Executor mainExecutor;
+    private volatile SubscriptionObserver observer;
+    private final List<Batch<?>> batches = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, EventPool<?>> pools = new ConcurrentHashMap<>();
+    private volatile boolean debugPooling;
+
+    public EventBus() {
+        this(null);
+    }
+
+    public EventBus(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        this.asyncExecutor = scheduler != null ? r -> scheduler.runTask(r, false) : ForkJoinPool.commonPool();
+        this.mainExecutor = scheduler != null ? r -> scheduler.runTask(r, true) : null;
+    }
 
     public <T> EventSubscription<T> subscribe(Class<T> eventType, EventPriority priority, Consumer<T> handler) {
+        return subscribe(eventType, priority, DispatchMode.SYNC, handler);
+    }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, EventPriority priority, DispatchMode mode, Consumer<T> handler) {
+        return add(eventType, null, priority, mode, handler, false);
+    }
+
+    /**
+     * Registers how events of {@code eventType} map to a key (player UUID, world, region id, …).
+     * Required before {@link #subscribe(Class, Object, EventPriority, Consumer)} for that type.
+     */
+    public <T> void registerKey(Class<T> eventType, Function<? super T, ?> keyExtractor) {
         Objects.requireNonNull(eventType, "eventType");
-        Objects.requireNonNull(priority, "priority");
+        Objects.requireNonNull(keyExtractor, "keyExtractor");
+        keyed.compute(eventType, (k, idx) -> {
+            if (idx == null) return new KeyedIndex(keyExtractor);
+            idx.extractor(keyExtractor);
+            return idx;
+        });
+        generation.incrementAndGet();
+    }
+
+    /** Keyed subscription: only invoked for events whose extracted key equals {@code key}. */
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, Object key, EventPriority priority, Consumer<T> handler) {
+        return subscribe(eventType, key, priority, DispatchMode.SYNC, handler);
+    }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, Object key, EventPriority priority, DispatchMode mode,
+                                              Consumer<T> handler) {
+        Objects.requireNonNull(key, "key");
+        return add(eventType, key, priority, mode, handler, false);
+    }
+
+    /**
+     * Collects events and delivers them once per {@code windowTicks} ticks from {@link #flushBatches()},
+     * keeping only the latest event per key (e.g. per player).
+     */
+    public <T, K> EventSubscription<T> subscribeBatched(Class<T> eventType, Function<? super T, ? extends K> keyFn,
+                                                        int windowTicks, Consumer<Map<K, T>> handler) {
+        Objects.requireNonNull(keyFn, "keyFn");
         Objects.requireNonNull(handler, "handler");
+        return addBatch(eventType, new KeyedBatch<>(windowTicks, keyFn, handler));
+    }
 
-        Subscription<T> sub = new Subscription<>(eventType, priority, handler);
-        subscribers.computeIfAbsent(eventType, k -> new ArrayList<>()).add(sub);
-        subscribers.get(eventType).sort(Comparator.comparingInt((Subscription<?> s) -> s.priority.getSlot()).reversed());
-        return sub;
+    /** Collects every event and delivers them as one list per {@code windowTicks} ticks. */
+    public <T> EventSubscription<T> subscribeBatched(Class<T> eventType, int windowTicks, Consumer<List<T>> handler) {
+        Objects.requireNonNull(handler, "handler");
+        return addBatch(eventType, new ListBatch<>(windowTicks, handler));
+    }
+
+    /** Delivers due batches. Called once per tick at tick end (ForgedPlugin: {@code ServerTickEndEvent}). */
+    public void flushBatches() {
+        for (Batch<?> batch : batches) {
+            if (++batch.elapsed < batch.windowTicks) continue;
+            batch.elapsed = 0;
+            try {
+                batch.flush();
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
     }
 
     public <T> void unsubscribe(EventSubscription<T> subscription) {
-        if (subscription instanceof Subscription<?> sub) {
-            List<Subscription<?>> list = subscribers.get(sub.eventType);
-            if (list != null) list.remove(sub);
+        if (subscription instanceof Batch<?> batch && batch.collector.bus == this) {
+            batches.remove(batch);
+            removeSubscription(batch.collector);
+        } else if (subscription instanceof Subscription<?> sub && sub.bus == this) {
+            removeSubscription(sub);
+        }
+    }
+
+    /**
+     * Subscribes every {@code @Subscribe} method of the listener.
+     * The returned scope (or {@link #unregister(Object)}) removes them again.
+     */
+    public SubscriptionScope register(Object listener) {
+        return register(listener, null);
+    }
+
+    /**
+     * Like {@link #register(Object)}, binding the handlers with {@code lookup}. Pass {@code MethodHandles.lookup()}
+     * from the plugin that owns the listener: NextCore cannot generate direct invokers for classes of other
+     * class loaders on its own and would call them through method handles.
+     */
+    public SubscriptionScope register(Object listener, MethodHandles.Lookup lookup) {
+        Objects.requireNonNull(listener, "listener");
+        List<ListenerInvokers.Handler> handlers = ListenerInvokers.of(listener.getClass(), lookup);
+        SubscriptionScope scope = new SubscriptionScope(this, listener);
+        if (listeners.putIfAbsent(listener, scope) != null)
+            throw new IllegalArgumentException("Listener already registered: " + listener);
+        for (ListenerInvokers.Handler h : handlers) {
+            scope.subscribe(h.eventType(), h.meta().priority(), h.meta().mode(), e -> h.invoker().accept(listener, e));
+        }
+        return scope;
+    }
+
+    /** Removes all subscriptions created by {@link #register(Object)} for this listener. */
+    public void unregister(Object listener) {
+        SubscriptionScope scope = listeners.get(listener);
+        if (scope != null) scope.close();
+    }
+
+    /** New anonymous scope; the caller closes it when its lifetime ends. */
+    public SubscriptionScope scope() {
+        return new SubscriptionScope(this, null);
+    }
+
+    /** The scope of an owner (plugin, player UUID, session object, …), created on first use. */
+    public SubscriptionScope scope(Object owner) {
+        Objects.requireNonNull(owner, "owner");
+        return scopes.computeIfAbsent(owner, o -> new SubscriptionScope(this, o));
+    }
+
+    /** Closes the owner's scope, removing every subscription made through it. */
+    public void closeScope(Object owner) {
+        SubscriptionScope scope = scopes.get(owner);
+        if (scope != null) scope.close();
+    }
+
+    /** Removes every subscription, scope and batch from this bus (an attached bridge unregisters as well). */
+    @Override
+    public void close() {
+        for (SubscriptionScope scope : List.copyOf(scopes.values())) scope.close();
+        List<SubscriptionScope> registered;
+        synchronized (listeners) { registered = List.copyOf(listeners.values()); }
+        for (SubscriptionScope scope : registered) scope.close();
+
+        for (Batch<?> batch : batches) unsubscribe(batch);
+        for (Subscription<?>[] subs : List.copyOf(subscribers.values())) {
+            for (Subscription<?> sub : subs) removeSubscription(sub);
         }
+        for (KeyedIndex idx : keyed.values()) {
+            for (Subscription<?>[] subs : List.copyOf(idx.byKey.values())) {
+                for (Subscription<?> sub : subs) removeSubscription(sub);
+            }
+        }
+        orderedTails.clear();
     }
 
+    /**
+     * Dispatches on the calling thread. SYNC handlers run inline; ASYNC and MAIN_THREAD handlers
+     * are handed off and may still be running when this returns.
+     */
     public <T> void post(T event) {
-        @SuppressWarnings("unchecked")
-        List<Subscription<T>> list = (List<Subscription<T>>) (List<?>) subscribers.getOrDefault(event.getClass(), List.of());
-        for (Subscription<T> sub : new ArrayList<>(list)) {
-            if (!sub.cancelled) {
-                try {
-                    sub.handler.accept(event);
-                } catch (Throwable t) {
-                    t.printStackTrace();
+        Objects.requireNonNull(event, "event");
+        dispatchNow(event);
+    }
+
+    /**
+     * Posts a pooled event: borrows an instance from the calling thread's pool, lets
+     * {@code initializer} fill it, dispatches it and returns it to the pool. No allocation
+     * on the hot path once the pool is warm.
+     * <p>
+     * If a handler hands the event to another thread (ASYNC/MAIN_THREAD) or batches it,
+     * the instance is left untouched for that handler and never reused.
+     */
+    public <T extends Poolable> void post(Class<T> eventType, Consumer<? super T> initializer) {
+        EventPool<T> pool = pool(eventType);
+        T event = pool.borrow();
+        boolean retained = true;
+        try {
+            initializer.accept(event);
+            retained = dispatchNow(event);
+        } finally {
+            pool.release(event, retained, debugPooling);
+        }
+    }
+
+    /** Custom factory for a pooled event type (default: its no-arg constructor). */
+    public <T extends Poolable> void registerPool(Class<T> eventType, Supplier<T> factory) {
+        Objects.requireNonNull(eventType, "eventType");
+        Objects.requireNonNull(factory, "factory");
+        pools.put(eventType, new EventPool<>(factory));
+    }
+
+    /**
+     * Debug mode for pooled events: released instances are poisoned instead of reused, so a handler
+     * that kept a reference fails fast ({@link PooledEvent#checkLive()}) instead of reading recycled data.
+     */
+    public void debugPooling(boolean enabled) {
+        this.debugPooling = enabled;
+    }
+
+    /**
+     * Dispatches off the calling thread. Handlers run one after another in priority order:
+     * MAIN_THREAD handlers on the main thread, all others on the async pool.
+     * The future completes with the event once every handler has run.
+     */
+    public <T> CompletableFuture<T> postAsync(T event) {
+        Objects.requireNonNull(event, "event");
+        return dispatchAsync(event, CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Like {@link #postAsync(Object)}, but events sharing an ordering key (e.g. a player UUID) are
+     * dispatched strictly in posting order. Events with different keys run in parallel.
+     */
+    public <T> CompletableFuture<T> postAsync(T event, Object orderingKey) {
+        Objects.requireNonNull(event, "event");
+        if (orderingKey == null) return postAsync(event);
+
+        AtomicReference<CompletableFuture<T>> queued = new AtomicReference<>();
+        orderedTails.compute(orderingKey, (k, tail) -> {
+            CompletableFuture<T> next = dispatchAsync(event, tail == null ? CompletableFuture.completedFuture(null) : tail);
+            queued.set(next);
+            return next;
+        });
+        CompletableFuture<T> f = queued.get();
+        f.whenComplete((r, t) -> orderedTails.remove(orderingKey, f)); // drop idle keys
+        return f;
+    }
+
+    /* ---------- bridge support (package-private) ---------- */
+
+    /** Notified whenever an (event type, priority) pair gains its first or loses its last subscriber. */
+    interface SubscriptionObserver {
+        void subscriptionsChanged(Class<?> eventType, EventPriority priority);
+    }
+
+    void observer(SubscriptionObserver observer) {
+        this.observer = observer;
+    }
+
+    boolean hasSubscribers(Class<?> eventType, EventPriority priority) {
+        return hasPriority(subscribers.get(eventType), priority) || hasKeyed(eventType, priority);
+    }
+
+    /** Snapshot of all (exact type, priority) pairs that currently have subscribers. */
+    Map<Class<?>, Set<EventPriority>> subscribedTypes() {
+        Map<Class<?>, Set<EventPriority>> out = new HashMap<>();
+        subscribers.forEach((type, subs) -> {
+            for (Subscription<?> sub : subs) out.computeIfAbsent(type, k -> EnumSet.noneOf(EventPriority.class)).add(sub.priority);
+        });
+        keyed.forEach((type, idx) -> {
+            for (EventPriority p : EventPriority.values()) {
+                if (idx.count(p) > 0) out.computeIfAbsent(type, k -> EnumSet.noneOf(EventPriority.class)).add(p);
+            }
+        });
+        return out;
+    }
+
+    /** Delivers to subscribers of exactly {@code eventType} registered at {@code priority} (no supertypes). */
+    void dispatchExact(Class<?> eventType, EventPriority priority, Object event) {
+        Subscription<?>[] subs = subscribers.get(eventType);
+        KeyedIndex idx = keyed.get(eventType);
+        Subscription<?>[] byKey = idx != null ? idx.lookup(event) : null;
+        deliverMerged(subs != null ? subs : NONE, byKey != null ? byKey : NONE, event, priority);
+    }
+
+    /* ---------- intern ---------- */
+
+    void scopeClosed(SubscriptionScope scope) {
+        Object owner = scope.owner();
+        if (owner == null) return;
+        scopes.remove(owner, scope);
+        listeners.remove(owner, scope);
+    }
+
+    /** @param retains handler keeps events beyond the call (batch collectors); pooled events are then not reused */
+    private <T> EventSubscription<T> add(Class<T> eventType, Object key, EventPriority priority, DispatchMode mode,
+                                         Consumer<T> handler, boolean retains) {
+        Objects.requireNonNull(eventType, "eventType");
+        Objects.requireNonNull(priority, "priority");
+        Objects.requireNonNull(mode, "mode");
+        Objects.requireNonNull(handler, "handler");
+        if (mode == DispatchMode.MAIN_THREAD && mainExecutor == null)
+            throw new IllegalStateException("MAIN_THREAD dispatch requires an EventBus created with a Scheduler");
+
+        Subscription<T> sub = new Subscription<>(this, eventType, key, priority, mode, handler,
+                retains || mode != DispatchMode.SYNC, sequence.getAndIncrement());
+        boolean first;
+        if (key == null) {
+            boolean[] none = new boolean[1];
+            subscribers.compute(eventType, (k, current) -> {
+                none[0] = !hasPriority(current, priority);
+                return insert(current, sub);
+            });
+            first = none[0] && !hasKeyed(eventType, priority);
+            generation.incrementAndGet();                     // keyed changes need no rebuild: Dispatch reads byKey live
+        } else {
+            KeyedIndex idx = keyed.get(eventType);
+            if (idx == null)
+                throw new IllegalStateException("No key extractor registered for " + eventType.getName() + " (call registerKey first)");
+            idx.byKey.compute(key, (k, current) -> insert(current, sub));
+            first = idx.increment(priority) && !hasPriority(subscribers.get(eventType), priority);
+        }
+        if (first) notifyObserver(eventType, priority);
+        return sub;
+    }
+
+    private void removeSubscription(Subscription<?> sub) {
+        sub.cancelled = true;
+        boolean last;
+        if (sub.key == null) {
+            boolean[] gone = new boolean[1];
+            subscribers.computeIfPresent(sub.eventType, (k, current) -> {
+                Subscription<?>[] next = remove(current, sub);
+                gone[0] = next != current && !hasPriority(next, sub.priority);
+                return next;
+            });
+            last = gone[0] && !hasKeyed(sub.eventType, sub.priority);
+            generation.incrementAndGet();
+        } else {
+            KeyedIndex idx = keyed.get(sub.eventType);
+            boolean[] removed = new boolean[1];
+            if (idx != null) {
+                idx.byKey.computeIfPresent(sub.key, (k, current) -> {
+                    Subscription<?>[] next = remove(current, sub);
+                    removed[0] = next != current;
+                    return next;
+                });
+            }
+            last = removed[0] && idx.decrement(sub.priority) && !hasPriority(subscribers.get(sub.eventType), sub.priority);
+        }
+        if (last) notifyObserver(sub.eventType, sub.priority);
+    }
+
+    /** Whether keyed subscriptions for the exact type exist at this priority. */
+    private boolean hasKeyed(Class<?> eventType, EventPriority priority) {
+        KeyedIndex idx = keyed.get(eventType);
+        return idx != null && idx.count(priority) > 0;
+    }
+
+    /** @return true if any handler may still hold the event after this returns */
+    private boolean dispatchNow(Object event) {
+        Dispatch d = dispatch(event.getClass());
+        if (d.keyed.length != 0) return postKeyed(d, event);
+        boolean retained = false;
+        for (Subscription<?> sub : d.handlers) {
+            if (sub.cancelled) continue; // unsubscribed while this dispatch was running
+            retained |= deliver(sub, event);
+        }
+        return retained;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Poolable> EventPool<T> pool(Class<T> eventType) {
+        EventPool<?> pool = pools.get(eventType);
+        if (pool == null) pool = pools.computeIfAbsent(eventType, t -> EventPool.reflective(eventType));
+        return (EventPool<T>) pool;
+    }
+
+    /** Keyed path of {@link #post}: merges the matching per-key arrays into the unkeyed order. */
+    private boolean postKeyed(Dispatch d, Object event) {
+        Subscription<?>[] matched = null;
+        List<Subscription<?>> more = null;
+        for (KeyedIndex idx : d.keyed) {
+            Subscription<?>[] subs = idx.lookup(event);
+            if (subs == null) continue;
+            if (matched == null) {
+                matched = subs;
+            } else {
+                if (more == null) more = new ArrayList<>(Arrays.asList(matched));
+                more.addAll(Arrays.asList(subs));
+            }
+        }
+        if (more == null) {
+            return deliverMerged(d.handlers, matched != null ? matched : NONE, event, null);
+        }
+        // keys on several supertypes matched at once: rare, so just sort
+        more.addAll(Arrays.asList(d.handlers));
+        more.sort(ORDER);
+        boolean retained = false;
+        for (Subscription<?> sub : more) {
+            if (!sub.cancelled) retained |= deliver(sub, event);
+        }
+        return retained;
+    }
+
+    /** Two-way merge of priority-sorted arrays, optionally restricted to one priority. */
+    private boolean deliverMerged(Subscription<?>[] a, Subscription<?>[] b, Object event, EventPriority only) {
+        boolean retained = false;
+        int i = 0, j = 0;
+        while (i < a.length || j < b.length) {
+            Subscription<?> sub = (j >= b.length || (i < a.length && order(a[i], b[j]) <= 0)) ? a[i++] : b[j++];
+            if (sub.cancelled || (only != null && sub.priority != only)) continue;
+            retained |= deliver(sub, event);
+        }
+        return retained;
+    }
+
+    /** All handlers for this event instance (unkeyed and matching keyed), in dispatch order. */
+    private Subscription<?>[] snapshot(Object event) {
+        Dispatch d = dispatch(event.getClass());
+        if (d.keyed.length == 0) return d.handlers;
+        List<Subscription<?>> out = new ArrayList<>(Arrays.asList(d.handlers));
+        for (KeyedIndex idx : d.keyed) {
+            Subscription<?>[] subs = idx.lookup(event);
+            if (subs != null) out.addAll(Arrays.asList(subs));
+        }
+        out.sort(ORDER);
+        return out.toArray(NONE);
+    }
+
+    private static int order(Subscription<?> a, Subscription<?> b) {
+        int c = Integer.compare(a.priority.getSlot(), b.priority.getSlot());
+        return c != 0 ? c : Long.compare(a.sequence, b.sequence);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EventSubscription<T> addBatch(Class<T> eventType, Batch<T> batch) {
+        // MONITOR: collect the final state after all other handlers ran
+        batch.collector = (Subscription<T>) add(eventType, null, EventPriority.MONITOR, DispatchMode.SYNC, batch, true);
+        batches.add(batch);
+        return batch;
+    }
+
+    /**
+     * A rejected hand-off (saturated or closed pool) skips only this subscriber, like a throwing handler.
+     * @return true if the subscription may keep the event beyond this call (deferred or batched)
+     */
+    private boolean deliver(Subscription<?> sub, Object event) {
+        try {
+            switch (sub.mode) {
+                case SYNC -> invoke(sub, event);
+                case ASYNC -> asyncExecutor.execute(() -> invoke(sub, event));
+                case MAIN_THREAD -> {
+                    if (scheduler.isMainThread()) invoke(sub, event);
+                    else mainExecutor.execute(() -> invoke(sub, event));
                 }
             }
+        } catch (RejectedExecutionException e) {
+            e.printStackTrace();
+            return false;                                     // never handed off, nobody holds the event
         }
+        return sub.retains;
     }
 
-    /* ---------- intern ---------- */
+    private void notifyObserver(Class<?> eventType, EventPriority priority) {
+        SubscriptionObserver o = observer;
+        if (o == null) return;
+        try {
+            o.subscriptionsChanged(eventType, priority);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    private static boolean hasPriority(Subscription<?>[] subs, EventPriority priority) {
+        if (subs == null) return false;
+        for (Subscription<?> s : subs) if (s.priority == priority) return true;
+        return false;
+    }
+
+    private static void invoke(Subscription<?> sub, Object event) {
+        if (sub.cancelled) return;
+        try {
+            sub.invoke(event);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    /** Chains one stage per run of handlers that share a thread, starting after {@code after}. */
+    private <T> CompletableFuture<T> dispatchAsync(T event, CompletableFuture<?> after) {
+        Subscription<?>[] handlers = snapshot(event);
+        CompletableFuture<?> stage = after.handle((r, t) -> null); // a failed predecessor must not block the key
+        int from = 0;
+        while (from < handlers.length) {
+            boolean main = handlers[from].mode == DispatchMode.MAIN_THREAD;
+            int to = from + 1;
+            while (to < handlers.length && (handlers[to].mode == DispatchMode.MAIN_THREAD) == main) to++;
+            int start = from, end = to;
+            stage = stage.thenRunAsync(() -> {
+                for (int i = start; i < end; i++) invoke(handlers[i], event);
+            }, main ? mainExecutor : asyncExecutor);
+            from = to;
+        }
+        return stage.thenApply(v -> event);
+    }
+
+    /** Cached handlers for a posted class; rebuilt lazily once the generation moved on. */
+    private Dispatch dispatch(Class<?> type) {
+        long gen = generation.get(); // read before resolving, so a concurrent change forces a rebuild
+        Dispatch cached = dispatchCache.get(type);
+        if (cached != null && cached.generation == gen) return cached;
+
+        Set<Class<?>> types = hierarchy(type);
+        List<KeyedIndex> indexes = new ArrayList<>(0);
+        for (Class<?> t : types) {
+            KeyedIndex idx = keyed.get(t);
+            if (idx != null) indexes.add(idx);
+        }
+        Dispatch resolved = new Dispatch(gen, resolve(types), indexes.toArray(new KeyedIndex[0]));
+        dispatchCache.put(type, resolved);
+        return resolved;
+    }
+
+    private Subscription<?>[] resolve(Set<Class<?>> types) {
+        Subscription<?>[] single = null;
+        List<Subscription<?>> merged = null;
+        for (Class<?> t : types) {
+            Subscription<?>[] subs = subscribers.get(t);
+            if (subs == null) continue;
+            if (single == null && merged == null) {
+                single = subs;
+            } else {
+                if (merged == null) {
+                    merged = new ArrayList<>(Arrays.asList(single));
+                }
+                merged.addAll(Arrays.asList(subs));
+            }
+        }
+        if (merged != null) {
+            merged.sort(ORDER);
+            return merged.toArray(NONE);
+        }
+        return single != null ? single : NONE;
+    }
+
+    /** The class itself, its superclasses and all implemented interfaces (each once). */
+    private static Set<Class<?>> hierarchy(Class<?> type) {
+        Set<Class<?>> out = new LinkedHashSet<>();
+        Deque<Class<?>> todo = new ArrayDeque<>();
+        todo.add(type);
+        while (!todo.isEmpty()) {
+            Class<?> c = todo.poll();
+            if (!out.add(c)) continue;
+            if (c.getSuperclass() != null) todo.add(c.getSuperclass());
+            todo.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        return out;
+    }
+
+    private static Subscription<?>[] insert(Subscription<?>[] current, Subscription<?> sub) {
+        if (current == null) return new Subscription<?>[]{sub};
+        int pos = Arrays.binarySearch(current, sub, ORDER);
+        pos = pos < 0 ? -pos - 1 : pos;
+        Subscription<?>[] next = new Subscription<?>[current.length + 1];
+        System.arraycopy(current, 0, next, 0, pos);
+        next[pos] = sub;
+        System.arraycopy(current, pos, next, pos + 1, current.length - pos);
+        return next;
+    }
+
+    /** Returns {@code null} once the last subscription is gone, which drops the map entry. */
+    private static Subscription<?>[] remove(Subscription<?>[] current, Subscription<?> sub) {
+        int idx = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == sub) { idx = i; break; }
+        }
+        if (idx < 0) return current;
+        if (current.length == 1) return null;
+        Subscription<?>[] next = new Subscription<?>[current.length - 1];
+        System.arraycopy(current, 0, next, 0, idx);
+        System.arraycopy(current, idx + 1, next, idx, current.length - idx - 1);
+        return next;
+    }
+
+    /** Collector subscription plus pending events; flushed from the tick-end hook. */
+    private abstract static class Batch<T> implements Consumer<T>, EventSubscription<T> {
+        final int windowTicks;
+        int elapsed;                                          // main thread only
+        Subscription<T> collector;
+
+        Batch(int windowTicks) { this.windowTicks = Math.max(1, windowTicks); }
+
+        abstract void flush();
+
+        @Override public void unsubscribe() { collector.bus.unsubscribe(this); }
+        @Override public boolean isActive() { return collector.isActive(); }
+    }
+
+    private static final class KeyedBatch<T, K> extends Batch<T> {
+        private final Function<? super T, ? extends K> keyFn;
+        private final Consumer<Map<K, T>> handler;
+        private final ConcurrentHashMap<K, T> latest = new ConcurrentHashMap<>();
+
+        KeyedBatch(int windowTicks, Function<? super T, ? extends K> keyFn, Consumer<Map<K, T>> handler) {
+            super(windowTicks);
+            this.keyFn = keyFn;
+            this.handler = handler;
+        }
+
+        @Override public void accept(T event) { latest.put(keyFn.apply(event), event); }
+
+        @Override void flush() {
+            if (latest.isEmpty()) return;
+            Map<K, T> out = new LinkedHashMap<>();
+            for (var e : latest.entrySet()) {
+                // conditional remove: a newer event put concurrently stays for the next flush
+                if (latest.remove(e.getKey(), e.getValue())) out.put(e.getKey(), e.getValue());
+            }
+            if (!out.isEmpty()) handler.accept(out);
+        }
+    }
+
+    private static final class ListBatch<T> extends Batch<T> {
+        private final Consumer<List<T>> handler;
+        private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+
+        ListBatch(int windowTicks, Consumer<List<T>> handler) {
+            super(windowTicks);
+            this.handler = handler;
+        }
+
+        @Override public void accept(T event) { pending.add(event); }
+
+        @Override void flush() {
+            if (pending.isEmpty()) return;
+            List<T> out = new ArrayList<>();
+            for (T e; (e = pending.poll()) != null; ) out.add(e);
+            handler.accept(out);
+        }
+    }
+
+    private record Dispatch(long generation, Subscription<?>[] handlers, KeyedIndex[] keyed) {}
+
+    /** Keyed subscriptions of one exact event type. */
+    private static final class KeyedIndex {
+        final Map<Object, Subscription<?>[]> byKey = new ConcurrentHashMap<>();
+        private final int[] perPriority = new int[EventPriority.values().length];
+        private volatile Function<Object, ?> extractor;
+
+        KeyedIndex(Function<?, ?> extractor) {
+            extractor(extractor);
+        }
+
+        @SuppressWarnings("unchecked")
+        void extractor(Function<?, ?> extractor) {
+            this.extractor = (Function<Object, ?>) extractor;
+        }
+
+        Subscription<?>[] lookup(Object event) {
+            Object key = extractor.apply(event);
+            return key != null ? byKey.get(key) : null;
+        }
+
+        /** @return true if this was the first keyed subscription at that priority */
+        synchronized boolean increment(EventPriority p) { return perPriority[p.ordinal()]++ == 0; }
+
+        /** @return true if this was the last keyed subscription at that priority */
+        synchronized boolean decrement(EventPriority p) { return --perPriority[p.ordinal()] == 0; }
+
+        synchronized int count(EventPriority p) { return perPriority[p.ordinal()]; }
+    }
 
     private static final class Subscription<T> implements EventSubscription<T> {
+        private final EventBus bus;
         private final Class<T> eventType;
+        private final Object key;                              // null: unkeyed
         private final EventPriority priority;
+        private final DispatchMode mode;
         private final Consumer<T> handler;
+        private final boolean retains;
+        private final long sequence;
         private volatile boolean cancelled = false;
 
-        Subscription(Class<T> eventType, EventPriority priority, Consumer<T> handler) {
+        Subscription(EventBus bus, Class<T> eventType, Object key, EventPriority priority, DispatchMode mode,
+                     Consumer<T> handler, boolean retains, long sequence) {
+            this.bus = bus;
             this.eventType = eventType;
+            this.key = key;
             this.priority = priority;
+            this.mode = mode;
             this.handler = handler;
+            this.retains = retains;
+            this.sequence = sequence;
+        }
+
+        @SuppressWarnings("unchecked")
+        void invoke(Object event) {
+            handler.accept((T) event);
         }
 
         @Override
         public void unsubscribe() {
-            this.cancelled = true;
+            bus.unsubscribe(this);
         }
 
         @Override
@@ -66,4 +729,4 @@ public class EventBus {
             return !cancelled;
         }
     }
-}
\ No newline at end of file
+}
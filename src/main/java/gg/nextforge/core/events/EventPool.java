@@ -0,0 +1,57 @@
+package gg.nextforge.core.events;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/** Per-thread free list of one pooled event type. */
+final class EventPool<T extends Poolable> {
+
+    private static final int MAX_PER_THREAD = 8; // enough for nested posts of the same type
+
+    private final Supplier<T> factory;
+    private final ThreadLocal<ArrayDeque<T>> free = ThreadLocal.withInitial(ArrayDeque::new);
+
+    EventPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    static <T extends Poolable> EventPool<T> reflective(Class<T> type) {
+        try {
+            var ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return new EventPool<>(() -> {
+                try {
+                    return ctor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create pooled event " + type.getName(), e);
+                }
+            });
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Pooled event " + type.getName()
+                    + " needs a no-arg constructor or an explicit registerPool factory", e);
+        }
+    }
+
+    T borrow() {
+        T event = free.get().pollFirst();
+        if (event == null) event = factory.get();
+        if (event instanceof PooledEvent pe) pe.released(false);
+        return event;
+    }
+
+    /**
+     * @param retained a handler kept the instance (deferred to another thread or batched): it is left
+     *                 untouched and simply not reused
+     * @param poison   debug mode: reset and mark released instead of reusing
+     */
+    void release(T event, boolean retained, boolean poison) {
+        if (retained) return;
+        event.reset();
+        if (poison) {
+            if (event instanceof PooledEvent pe) pe.released(true);
+            return;
+        }
+        ArrayDeque<T> deque = free.get();
+        if (deque.size() < MAX_PER_THREAD) deque.addFirst(event);
+    }
+}
@@ -0,0 +1,134 @@
+package gg.nextforge.core.events;
+
+import gg.nextforge.core.events.annotation.Subscribe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Scans {@link Subscribe} methods once per listener class and binds them to direct invokers.
+ * <p>
+ * Generated invokers need a lookup with full privilege access to the declaring class. NextCore's own
+ * lookup has that only for classes of its own class loader; for other plugins' listeners the caller's
+ * {@code MethodHandles.lookup()} is used if it was passed to {@link EventBus#register(Object, MethodHandles.Lookup)},
+ * else the handler falls back to a (slower) method handle call and a warning names the class.
+ */
+final class ListenerInvokers {
+    private ListenerInvokers() {}
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerInvokers.class);
+
+    /** One bound {@code @Subscribe} method; {@code invoker} is called as (listener, event). */
+    record Handler(Class<?> eventType, Subscribe meta, BiConsumer<Object, Object> invoker, boolean generated) {}
+
+    /** Handlers of one class; rebound once if a later registration brings a lookup that can generate them. */
+    private static final class Bound {
+        volatile List<Handler> handlers;                     // null until first scan
+        volatile boolean generated;                          // all invokers generated: nothing left to improve
+    }
+
+    // ClassValue keeps the metadata without pinning plugin classes (and their loaders) in memory
+    private static final ClassValue<Bound> HANDLERS = new ClassValue<>() {
+        @Override protected Bound computeValue(Class<?> type) { return new Bound(); }
+    };
+
+    /** @param lookup the registering plugin's lookup, or null */
+    static List<Handler> of(Class<?> listenerClass, MethodHandles.Lookup lookup) {
+        Bound b = HANDLERS.get(listenerClass);
+        List<Handler> h = b.handlers;
+        if (h != null && (b.generated || lookup == null)) return h;
+        synchronized (b) {
+            h = b.handlers;
+            if (h != null && (b.generated || lookup == null)) return h;
+            List<Handler> scanned = scan(listenerClass, lookup);
+            boolean generated = scanned.stream().allMatch(Handler::generated);
+            if (h == null || generated) {
+                b.handlers = scanned;
+                b.generated = generated;
+            }
+            return scanned;
+        }
+    }
+
+    private static List<Handler> scan(Class<?> type, MethodHandles.Lookup caller) {
+        List<Handler> out = new ArrayList<>();
+        Throwable firstFailure = null;
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                Subscribe meta = m.getAnnotation(Subscribe.class);
+                if (meta == null || m.isBridge()) continue;
+                if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 1)
+                    throw new IllegalArgumentException("@Subscribe method must be non-static with exactly one parameter: " + m);
+                MethodHandles.Lookup lookup = lookupFor(m, caller);
+                MethodHandle target;
+                try {
+                    target = lookup.unreflect(m);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot access @Subscribe method " + m, e);
+                }
+                BiConsumer<Object, Object> invoker;
+                try {
+                    invoker = generate(lookup, m, target);
+                } catch (Throwable lmfUnavailable) {
+                    if (firstFailure == null) firstFailure = lmfUnavailable;
+                    out.add(new Handler(m.getParameterTypes()[0], meta, handleInvoker(target), false));
+                    continue;
+                }
+                out.add(new Handler(m.getParameterTypes()[0], meta, invoker, true));
+            }
+        }
+        if (firstFailure != null) {
+            log.warn("@Subscribe methods of {} are called through method handles ({}); register the listener with "
+                    + "EventBus.register(listener, MethodHandles.lookup()) for generated invokers", type.getName(), firstFailure.toString());
+        }
+        return List.copyOf(out);
+    }
+
+    /** NextCore's lookup if it has full privilege on the declaring class, else the caller's if that does. */
+    private static MethodHandles.Lookup lookupFor(Method m, MethodHandles.Lookup caller) {
+        Class<?> owner = m.getDeclaringClass();
+        MethodHandles.Lookup own;
+        try {
+            own = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access @Subscribe method " + m, e);
+        }
+        if (own.hasFullPrivilegeAccess() || caller == null) return own;
+        try {
+            MethodHandles.Lookup viaCaller = MethodHandles.privateLookupIn(owner, caller);
+            return viaCaller.hasFullPrivilegeAccess() ? viaCaller : own;
+        } catch (IllegalAccessException e) {
+            return own;                                      // caller's lookup lacks module access
+        }
+    }
+
+    /** Generated class calls the method directly, like a hand-written lambda. */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> generate(MethodHandles.Lookup lookup, Method m, MethodHandle target) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                target,
+                MethodType.methodType(void.class, m.getDeclaringClass(), m.getParameterTypes()[0]));
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static BiConsumer<Object, Object> handleInvoker(MethodHandle target) {
+        MethodHandle h = target.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (listener, event) -> {
+            try {
+                h.invokeExact(listener, event);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package gg.nextforge.core.events;
+
+/**
+ * Event that can be reused by {@link EventBus#post(Class, java.util.function.Consumer)}.
+ * Handlers must not keep a reference to a pooled event after they return.
+ */
+public interface Poolable {
+    /** Clears all state before the instance goes back to the pool. */
+    void reset();
+}
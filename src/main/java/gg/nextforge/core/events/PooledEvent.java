@@ -0,0 +1,22 @@
+package gg.nextforge.core.events;
+
+/**
+ * Optional base class for {@link Poolable} events. With pool debugging enabled
+ * ({@link EventBus#debugPooling(boolean)}) released instances are poisoned instead of reused,
+ * so accessors calling {@link #checkLive()} fail fast in handlers that kept a reference.
+ */
+public abstract class PooledEvent implements Poolable {
+
+    private volatile boolean released;
+
+    /** Call from accessors to detect use of an instance that already went back to the pool. */
+    protected final void checkLive() {
+        if (released)
+            throw new IllegalStateException(getClass().getSimpleName()
+                    + " used after it was returned to the pool - a handler kept a reference to a pooled event");
+    }
+
+    void released(boolean released) {
+        this.released = released;
+    }
+}
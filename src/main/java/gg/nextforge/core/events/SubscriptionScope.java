@@ -0,0 +1,94 @@
+package gg.nextforge.core.events;
+
+import org.bukkit.event.EventPriority;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Subscriptions that end together: per plugin, per player session or any other lifetime.
+ * Closing the scope removes every subscription it created from the bus.
+ */
+public final class SubscriptionScope implements EventSubscription<Object>, AutoCloseable {
+
+    private static final int PRUNE_EVERY = 64; // drop individually unsubscribed entries now and then
+
+    private final EventBus bus;
+    private final Object owner;                            // null: anonymous scope
+    private final Set<EventSubscription<?>> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger tracked = new AtomicInteger();
+    private volatile boolean closed;
+
+    SubscriptionScope(EventBus bus, Object owner) {
+        this.bus = bus;
+        this.owner = owner;
+    }
+
+    public Object owner() { return owner; }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, EventPriority priority, Consumer<T> handler) {
+        return track(bus.subscribe(eventType, priority, handler));
+    }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, EventPriority priority, DispatchMode mode, Consumer<T> handler) {
+        return track(bus.subscribe(eventType, priority, mode, handler));
+    }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, Object key, EventPriority priority, Consumer<T> handler) {
+        return track(bus.subscribe(eventType, key, priority, handler));
+    }
+
+    public <T> EventSubscription<T> subscribe(Class<T> eventType, Object key, EventPriority priority, DispatchMode mode,
+                                              Consumer<T> handler) {
+        return track(bus.subscribe(eventType, key, priority, mode, handler));
+    }
+
+    public <T, K> EventSubscription<T> subscribeBatched(Class<T> eventType, Function<? super T, ? extends K> keyFn,
+                                                        int windowTicks, Consumer<Map<K, T>> handler) {
+        return track(bus.subscribeBatched(eventType, keyFn, windowTicks, handler));
+    }
+
+    public <T> EventSubscription<T> subscribeBatched(Class<T> eventType, int windowTicks, Consumer<List<T>> handler) {
+        return track(bus.subscribeBatched(eventType, windowTicks, handler));
+    }
+
+    /** Registers an {@code @Subscribe} listener whose lifetime ends with this scope. */
+    public SubscriptionScope register(Object listener) {
+        return track(bus.register(listener));
+    }
+
+    /** Like {@link #register(Object)}; see {@link EventBus#register(Object, MethodHandles.Lookup)}. */
+    public SubscriptionScope register(Object listener, MethodHandles.Lookup lookup) {
+        return track(bus.register(listener, lookup));
+    }
+
+    /** Ties an existing subscription (or nested scope) to this scope. */
+    public <S extends EventSubscription<?>> S track(S subscription) {
+        if (closed) {
+            subscription.unsubscribe();
+            throw new IllegalStateException("Scope is already closed");
+        }
+        subscriptions.add(subscription);
+        if (tracked.incrementAndGet() % PRUNE_EVERY == 0) subscriptions.removeIf(s -> !s.isActive());
+        if (closed) subscription.unsubscribe(); // raced with close()
+        return subscription;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (EventSubscription<?> sub : subscriptions) sub.unsubscribe();
+        subscriptions.clear();
+        bus.scopeClosed(this);
+    }
+
+    @Override public void unsubscribe() { close(); }
+    @Override public boolean isActive() { return !closed; }
+}
@@ -0,0 +1,14 @@
+package gg.nextforge.core.events.annotation;
+
+import gg.nextforge.core.events.DispatchMode;
+import org.bukkit.event.EventPriority;
+
+import java.lang.annotation.*;
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+    EventPriority priority() default EventPriority.NORMAL;
+    DispatchMode mode() default DispatchMode.SYNC;
+}
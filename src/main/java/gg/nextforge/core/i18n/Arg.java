@@ -0,0 +1,32 @@
+package gg.nextforge.core.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+/**
+ * A named placeholder value for {@link I18n}: {@code i18n.component(p, "user.greet", Arg.text("name", p.getName()))}.
+ * Values are rendered once when the Arg is created and inserted as-is; their formatting does not leak
+ * into the rest of the message.
+ */
+public record Arg(String name, Component value) {
+
+    public Arg {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("name");
+        if (value == null) throw new IllegalArgumentException("value");
+    }
+
+    /** Plain text; tags in {@code value} are shown literally. Numbers and other objects use {@code String.valueOf}. */
+    public static Arg text(String name, Object value) {
+        return new Arg(name, Component.text(String.valueOf(value)));
+    }
+
+    public static Arg component(String name, ComponentLike value) {
+        return new Arg(name, value.asComponent());
+    }
+
+    /** MiniMessage markup, parsed now. */
+    public static Arg parsed(String name, String value) {
+        return new Arg(name, value.indexOf('<') < 0 ? Component.text(value) : MiniMessage.miniMessage().deserialize(value));
+    }
+}
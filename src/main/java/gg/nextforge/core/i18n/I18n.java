@@ -1,31 +1,39 @@
 // gg/nextforge/core/i18n/I18n.java
 package gg.nextforge.core.i18n;
 
+import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class I18n {
     private final YamlMessageSource source;
     private final MiniMessage mm = MiniMessage.miniMessage();
     private final LocaleResolver resolver;
+    private volatile Map<Locale, MessageTemplate[]> templates = new ConcurrentHashMap<>(); // by MessageKey index
 
     public I18n(YamlMessageSource source, LocaleResolver resolver) {
         this.source = source;
         this.resolver = resolver;
+        source.onReload(this::invalidate);
+    }
+
+    /**
+     * Renders {@code key} with typed placeholders. The template is parsed once per locale; rendering
+     * only inserts the values, and keys without placeholders return the same cached Component.
+     */
+    public Component component(Object audience, MessageKey key, Arg... args) {
+        return template(locale(audience), key).render(mm, args);
+    }
+
+    public Component component(Object audience, String key, Arg... args) {
+        return component(audience, MessageKey.of(key), args);
     }
 
     public Component component(Object audience, String key, Map<String, String> vars) {
-        Locale loc = locale(audience);
-        String raw = source.getRaw(loc, key).orElse(key);
-        TagResolver[] tags = vars.entrySet().stream()
-                .map(e -> Placeholder.parsed(e.getKey(), e.getValue()))
-                .toArray(TagResolver[]::new);
-        return mm.deserialize(raw, TagResolver.resolver(tags));
+        return component(audience, MessageKey.of(key), args(vars));
     }
 
     public Component component(String key, Map<String, String> vars) {
@@ -33,13 +41,70 @@ public final class I18n {
     }
 
     public Component component(Object audience, String key) {
-        return component(audience, key, Map.of());
+        return template(locale(audience), MessageKey.of(key)).render(mm);
+    }
+
+    /**
+     * Sends {@code key} to every recipient in its own locale, rendering the message once per distinct
+     * locale instead of once per recipient. The rendered Component is immutable and shared.
+     */
+    public void broadcast(Iterable<? extends Audience> recipients, MessageKey key, Arg... args) {
+        Map<Locale, Component> rendered = new HashMap<>();
+        for (Audience a : recipients) {
+            Component c = rendered.computeIfAbsent(locale(a), loc -> template(loc, key).render(mm, args));
+            a.sendMessage(c);
+        }
+    }
+
+    public void broadcast(Iterable<? extends Audience> recipients, String key, Arg... args) {
+        broadcast(recipients, MessageKey.of(key), args);
+    }
+
+    public void broadcast(Iterable<? extends Audience> recipients, String key, Map<String, String> vars) {
+        broadcast(recipients, MessageKey.of(key), args(vars));
+    }
+
+    /** Drops all compiled templates; called when the message source reloads. */
+    public void invalidate() {
+        templates = new ConcurrentHashMap<>();                // a render racing with the reload fills the old map
     }
 
     public String raw(Object audience, String key) {
         return source.getRaw(locale(audience), key).orElse(key);
     }
 
+    public String raw(Object audience, MessageKey key) {
+        String v = source.raw(locale(audience), key);
+        return v != null ? v : key.name();
+    }
+
+    /**
+     * Cached template; the per-locale array grows when keys are interned later. A write into an array
+     * that was just replaced is lost and the template compiled again, which is harmless.
+     */
+    private MessageTemplate template(Locale loc, MessageKey key) {
+        Map<Locale, MessageTemplate[]> byLocale = templates;
+        int i = key.index();
+        MessageTemplate[] table = byLocale.get(loc);
+        if (table == null || i >= table.length) {
+            table = byLocale.compute(loc, (l, cur) -> cur != null && i < cur.length ? cur
+                    : Arrays.copyOf(cur != null ? cur : new MessageTemplate[0], Math.max(i + 1, MessageKey.count())));
+        }
+        MessageTemplate t = table[i];
+        if (t == null) {
+            String raw = source.raw(loc, key);
+            table[i] = t = MessageTemplate.compile(raw != null ? raw : key.name());
+        }
+        return t;
+    }
+
+    private static Arg[] args(Map<String, String> vars) {
+        Arg[] out = new Arg[vars.size()];
+        int i = 0;
+        for (Map.Entry<String, String> e : vars.entrySet()) out[i++] = Arg.parsed(e.getKey(), e.getValue());
+        return out;
+    }
+
     private Locale locale(Object audience) {
         Locale l = resolver != null ? resolver.resolve(audience) : null;
         return l != null ? l : source.getDefaultLocale();
@@ -0,0 +1,55 @@
+package gg.nextforge.core.i18n;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned message key. Each distinct name gets a stable, dense index for the lifetime of the JVM, so
+ * bundles can store values in arrays and a lookup is one array read. Keep handles in constants:
+ * {@code static final MessageKey GREET = MessageKey.of("user.greet");}
+ */
+public final class MessageKey {
+
+    private static final Map<String, MessageKey> KEYS = new ConcurrentHashMap<>();
+    private static int next;                                  // guarded by MessageKey.class
+
+    private final String name;
+    private final int index;
+
+    private MessageKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    public static MessageKey of(String name) {
+        MessageKey key = KEYS.get(name);
+        return key != null ? key : KEYS.computeIfAbsent(name, MessageKey::create);
+    }
+
+    /** The interned key, or null if {@code name} was never interned (so no bundle can contain it). */
+    static MessageKey find(String name) {
+        return KEYS.get(name);
+    }
+
+    /** Number of interned keys; every index is below it. */
+    static int count() {
+        synchronized (MessageKey.class) {
+            return next;
+        }
+    }
+
+    public String name() { return name; }
+
+    public int index() { return index; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static MessageKey create(String name) {
+        synchronized (MessageKey.class) {
+            return new MessageKey(name, next++);
+        }
+    }
+}
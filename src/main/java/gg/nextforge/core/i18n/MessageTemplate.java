@@ -0,0 +1,137 @@
+package gg.nextforge.core.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A MiniMessage string parsed once. Every tag the standard resolver does not know becomes a marker
+ * leaf in the Component tree, remembered by identity; rendering swaps the markers for {@link Arg}
+ * values and rebuilds only the nodes above them. Templates without markers render to one shared
+ * immutable Component.
+ * <p>
+ * Placeholders inside tag arguments ({@code <click:run_command:'/tp <name>'>}) or inside tags that
+ * restyle their content per character (gradient, rainbow) cannot be substituted afterwards; such
+ * templates keep the raw string and are parsed on every render, with the values pasted in as markup.
+ */
+final class MessageTemplate {
+
+    // marker text prefix; only used to notice markers a tag restyled apart, never to identify one
+    private static final char MARK = '\uE000';
+    private static final MiniMessage COMPILER = MiniMessage.builder().postProcessor(c -> c).build(); // no compaction: it would merge markers into text
+    private static final Arg[] NO_ARGS = new Arg[0];
+
+    private final Component compiled;                         // null: parse per render
+    private final Map<Component, String> markers;             // marker leaf (by identity) -> placeholder name
+    private final boolean placeholders;
+    private final String raw;
+
+    private MessageTemplate(Component compiled, Map<Component, String> markers, boolean placeholders, String raw) {
+        this.compiled = compiled;
+        this.markers = markers;
+        this.placeholders = placeholders;
+        this.raw = raw;
+    }
+
+    static MessageTemplate compile(String raw) {
+        Markers resolver = new Markers();
+        Component c = COMPILER.deserialize(raw, resolver);
+        Map<Component, String> found = new IdentityHashMap<>();
+        if (!scan(c, resolver.created, found)) return new MessageTemplate(null, Map.of(), true, raw);
+        return found.isEmpty() ? new MessageTemplate(c.compact(), Map.of(), false, raw) : new MessageTemplate(c, found, true, raw);
+    }
+
+    boolean hasPlaceholders() {
+        return placeholders;
+    }
+
+    Component render(MiniMessage mm, Arg... args) {
+        if (!placeholders) return compiled;
+        if (args == null) args = NO_ARGS;
+        if (compiled != null) return substitute(compiled, args);
+        TagResolver[] tags = new TagResolver[args.length];
+        for (int i = 0; i < args.length; i++) tags[i] = Placeholder.parsed(args[i].name(), mm.serialize(args[i].value()));
+        return mm.deserialize(raw, tags);
+    }
+
+    /* ---------------- intern ---------------- */
+
+    /** Resolves unknown argument-less tags to marker leaves and remembers each one it creates. */
+    private static final class Markers implements TagResolver {
+        final Map<Component, String> created = new IdentityHashMap<>();
+
+        @Override
+        public Tag resolve(String name, ArgumentQueue arguments, Context ctx) {
+            if (arguments.hasNext() || !has(name)) return null;
+            Component marker = Component.text(MARK + name);
+            created.put(marker, name);
+            return Tag.selfClosingInserting(marker);
+        }
+
+        @Override
+        public boolean has(String name) {
+            return !TagResolver.standard().has(name);
+        }
+    }
+
+    /**
+     * Collects the marker leaves that made it into the tree; false if one was restyled apart (gradient),
+     * a placeholder was left in a click value or insertion, or the text itself contains {@link #MARK}
+     * (a resource-pack glyph): such templates are parsed per render.
+     */
+    private static boolean scan(Component c, Map<Component, String> created, Map<Component, String> found) {
+        String name = created.get(c);
+        if (name != null) found.put(c, name);
+        else if (c instanceof TextComponent t && t.content().indexOf(MARK) >= 0) return false;
+        ClickEvent click = c.clickEvent();
+        if (click != null && click.value().indexOf('<') >= 0) return false;
+        if (c.insertion() != null && c.insertion().indexOf('<') >= 0) return false;
+        HoverEvent<?> hover = c.hoverEvent();
+        if (hover != null && hover.action() == HoverEvent.Action.SHOW_TEXT && !scan((Component) hover.value(), created, found)) return false;
+        for (Component child : c.children()) {
+            if (!scan(child, created, found)) return false;
+        }
+        return true;
+    }
+
+    private Component substitute(Component c, Arg[] args) {
+        String name = markers.get(c);
+        if (name != null) return value(name, args);
+        List<Component> children = c.children();
+        List<Component> out = null;
+        for (int i = 0, n = children.size(); i < n; i++) {
+            Component child = children.get(i);
+            Component sub = substitute(child, args);
+            if (sub != child && out == null) out = new ArrayList<>(children.subList(0, i));
+            if (out != null) out.add(sub);
+        }
+        Component result = out == null ? c : c.children(out);
+        HoverEvent<?> hover = c.hoverEvent();
+        if (hover != null && hover.action() == HoverEvent.Action.SHOW_TEXT) {
+            Component text = (Component) hover.value();
+            Component sub = substitute(text, args);
+            if (sub != text) result = result.hoverEvent(HoverEvent.showText(sub));
+        }
+        return result;
+    }
+
+    /** Value of the Arg named like the placeholder, or the literal tag if none was given (as MiniMessage shows unknown tags). */
+    private static Component value(String name, Arg[] args) {
+        for (Arg a : args) {
+            if (a.name().equals(name)) return a.value();
+        }
+        return Component.text("<" + name + ">");
+    }
+}
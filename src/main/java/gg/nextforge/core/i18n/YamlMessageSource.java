@@ -1,18 +1,39 @@
 // gg/nextforge/core/i18n/YamlMessageSource.java
 package gg.nextforge.core.i18n;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-plugin YAML bundles. Loaded bundles form one immutable snapshot that is published with a single
+ * volatile write, so {@link #getRaw} never blocks and never sees a half-loaded reload.
+ * <p>
+ * Every {@code <locale>.yml} in the directory is loaded (nested maps flattened to dotted keys) and
+ * merged along its fallback chain, e.g. {@code de_AT → de → default}, into an array indexed by
+ * {@link MessageKey#index()}. Locales without a file get their merged array on first use.
+ */
+public final class YamlMessageSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(YamlMessageSource.class);
+    private static final long WATCH_QUIET_MILLIS = 500;      // debounce: editors write files in several steps
 
-public final class YamlMessageSource {
     private final Path messagesDir;               // <plugin-data>/messages
     private final Locale defaultLocale;
     private final Set<Locale> supported;
-    private final Map<Locale, Map<String, String>> bundles = new HashMap<>();
+    private volatile Bundles bundles = new Bundles(Map.of());
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private final Object loadLock = new Object();            // serializes loaders, never taken by readers
+    private volatile Thread watcher;
 
     public YamlMessageSource(Path dataFolder, Locale defaultLocale, Set<Locale> supported) {
         this.messagesDir = dataFolder.resolve("messages");
@@ -41,42 +62,181 @@ public final class YamlMessageSource {
         }
     }
 
+    /** Loads every locale file into a new snapshot and publishes it; the old one stays live on failure. */
     public void loadAll() throws IOException {
-        bundles.clear();
-        for (Locale loc : supported) {
-            bundles.put(loc, loadOne(loc));
+        synchronized (loadLock) {
+            Map<Locale, Map<String, String>> files = new HashMap<>();
+            if (Files.isDirectory(messagesDir)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(messagesDir, "*.yml")) {
+                    for (Path file : dir) files.put(localeOf(file), loadOne(file));
+                }
+            }
+            Bundles next = new Bundles(files);
+            for (Locale loc : files.keySet()) next.table(loc);   // precompute; readers of loaded locales never merge
+            bundles = next;
+        }
+        for (Runnable l : reloadListeners) {
+            try { l.run(); }
+            catch (Throwable t) { log.warn("Message reload listener failed", t); }
         }
     }
 
+    /** Runs after every (re)load, e.g. to drop caches built from the previous messages. */
+    public void onReload(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
     public void reload() throws IOException {
         loadAll();
     }
 
+    /** Reloads on {@code executor}; readers keep the current snapshot until the new one is complete. */
+    public CompletableFuture<Void> reloadAsync(Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try { loadAll(); }
+            catch (IOException e) { throw new UncheckedIOException(e); }
+        }, executor);
+    }
+
+    /**
+     * Watches {@code <data>/messages} on a daemon thread and reloads there once the directory has been
+     * quiet for {@value #WATCH_QUIET_MILLIS} ms after a change. Broken YAML is logged and the previous
+     * snapshot kept. No-op if already watching.
+     */
+    public synchronized void watch() throws IOException {
+        if (watcher != null) return;
+        WatchService ws = messagesDir.getFileSystem().newWatchService();
+        messagesDir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        Thread t = new Thread(() -> watchLoop(ws), "NextForge-Messages-" + messagesDir.getParent().getFileName());
+        t.setDaemon(true);
+        watcher = t;
+        t.start();
+    }
+
+    /** Stops the file watcher. */
+    @Override
+    public synchronized void close() {
+        Thread t = watcher;
+        watcher = null;
+        if (t != null) t.interrupt();
+    }
+
     public Optional<String> getRaw(Locale locale, String key) {
-        Map<String, String> map = bundles.getOrDefault(locale, Map.of());
-        if (map.containsKey(key)) return Optional.ofNullable(map.get(key));
-        // Fallback: Default-Locale
-        Map<String, String> def = bundles.getOrDefault(defaultLocale, Map.of());
-        return Optional.ofNullable(def.get(key));
+        MessageKey k = MessageKey.find(key);
+        return k == null ? Optional.empty() : Optional.ofNullable(raw(locale, k));
+    }
+
+    /** Value along the fallback chain of {@code locale}, or null; one array read for loaded locales. */
+    public String raw(Locale locale, MessageKey key) {
+        String[] table = bundles.table(locale);
+        int i = key.index();
+        return i < table.length ? table[i] : null;
     }
 
     public Locale getDefaultLocale() { return defaultLocale; }
 
-    private Map<String, String> loadOne(Locale loc) throws IOException {
-        Path file = messagesDir.resolve(fileName(loc));
-        if (!Files.exists(file)) return Map.of();
+    /** One immutable load: flattened files plus merged lookup tables per locale. */
+    private final class Bundles {
+        final Map<Locale, Map<String, String>> files;
+        final Map<Locale, String[]> tables = new ConcurrentHashMap<>();
+
+        Bundles(Map<Locale, Map<String, String>> files) {
+            this.files = Map.copyOf(files);
+        }
+
+        String[] table(Locale locale) {
+            String[] t = tables.get(locale);
+            return t != null ? t : tables.computeIfAbsent(locale, this::merge);
+        }
+
+        /** Applies the chain from the default locale up to {@code locale}, so the most specific value wins. */
+        private String[] merge(Locale locale) {
+            List<Locale> chain = new ArrayList<>(fallbackChain(locale));
+            String[] table = new String[MessageKey.count()];
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                Map<String, String> file = files.get(chain.get(i));
+                if (file == null) continue;
+                for (var e : file.entrySet()) table[MessageKey.of(e.getKey()).index()] = e.getValue();
+            }
+            return table;
+        }
+    }
+
+    /** {@code de_AT_x → de_AT → de}, then the same for the default locale. */
+    private Set<Locale> fallbackChain(Locale locale) {
+        Set<Locale> chain = new LinkedHashSet<>();
+        for (Locale l : new Locale[]{locale, defaultLocale}) {
+            chain.add(l);
+            if (!l.getVariant().isEmpty()) chain.add(new Locale(l.getLanguage(), l.getCountry()));
+            if (!l.getCountry().isEmpty()) chain.add(new Locale(l.getLanguage()));
+        }
+        return chain;
+    }
+
+    /** Flattened {@code key: value} pairs; every key is interned so merged tables can be sized up front. */
+    private static Map<String, String> loadOne(Path file) throws IOException {
         try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
             Object data = new Yaml().load(r);
-            if (!(data instanceof Map)) return Map.of();
-            // Flach erwarten: key: value
-            Map<?, ?> m = (Map<?, ?>) data;
-            Map<String, String> out = new LinkedHashMap<>();
-            for (var e : m.entrySet()) {
-                if (e.getKey() != null && e.getValue() != null) {
-                    out.put(e.getKey().toString(), e.getValue().toString());
+            Map<String, String> out = new HashMap<>();
+            if (data instanceof Map<?, ?> m) flatten("", m, out);
+            for (String key : out.keySet()) MessageKey.of(key);
+            return Map.copyOf(out);
+        }
+    }
+
+    /** Nested maps become dotted keys; lists become multi-line values. */
+    private static void flatten(String prefix, Map<?, ?> map, Map<String, String> out) {
+        for (var e : map.entrySet()) {
+            if (e.getKey() == null || e.getValue() == null) continue;
+            String key = prefix + e.getKey();
+            if (e.getValue() instanceof Map<?, ?> child) {
+                flatten(key + ".", child, out);
+            } else if (e.getValue() instanceof List<?> lines) {
+                StringJoiner joined = new StringJoiner("\n");
+                for (Object line : lines) joined.add(String.valueOf(line));
+                out.put(key, joined.toString());
+            } else {
+                out.put(key, e.getValue().toString());
+            }
+        }
+    }
+
+    /** {@code de_AT.yml} (or {@code de-AT.yml}) → {@code de_AT}. */
+    private static Locale localeOf(Path file) {
+        String name = file.getFileName().toString();
+        String[] parts = name.substring(0, name.length() - ".yml".length()).replace('-', '_').split("_", 3);
+        return switch (parts.length) {
+            case 1 -> new Locale(parts[0]);
+            case 2 -> new Locale(parts[0], parts[1]);
+            default -> new Locale(parts[0], parts[1], parts[2]);
+        };
+    }
+
+    private void watchLoop(WatchService ws) {
+        try (ws) {
+            while (watcher == Thread.currentThread()) {
+                WatchKey key = ws.take();
+                boolean relevant = false;
+                do {
+                    for (WatchEvent<?> e : key.pollEvents()) {
+                        if (e.kind() == StandardWatchEventKinds.OVERFLOW) relevant = true;
+                        else if (e.context() instanceof Path p && p.toString().endsWith(".yml")) relevant = true;
+                    }
+                    key.reset();
+                } while ((key = ws.poll(WATCH_QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                if (!relevant) continue;
+                try {
+                    loadAll();
+                    log.info("Reloaded messages from {}", messagesDir);
+                } catch (Exception e) {
+                    log.warn("Message reload failed, keeping previous messages", e);
                 }
             }
-            return out;
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // closed
+        } catch (IOException e) {
+            log.warn("Message watcher stopped", e);
         }
     }
 
@@ -5,6 +5,7 @@ import com.destroystokyo.paper.event.server.ServerTickEndEvent;
 import com.destroystokyo.paper.event.server.ServerTickStartEvent;
 import dev.mzcy.LicensedPlugin;
 import gg.nextforge.core.commands.CommandManager;
+import gg.nextforge.core.events.BukkitEventBridge;
 import gg.nextforge.core.events.EventBus;
 import gg.nextforge.core.plugin.annotation.NextForgePlugin;
 import gg.nextforge.core.plugin.dependency.DependencyManager;
@@ -17,7 +18,9 @@ import gg.nextforge.core.i18n.I18n;
 import gg.nextforge.core.i18n.YamlMessageSource;
 import gg.nextforge.core.i18n.LocaleResolver;
 import gg.nextforge.core.i18n.DefaultLocaleResolver;
+import gg.nextforge.core.scheduler.ExecutorLimits;
 import gg.nextforge.core.scheduler.NextForgeScheduler;
+import gg.nextforge.core.scheduler.SyncBudget;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.Accessors;
@@ -36,6 +39,7 @@ public abstract class ForgedPlugin extends LicensedPlugin {
     private ServiceRegistry services;
     private NextForgeScheduler scheduler;
     private EventBus eventBus;
+    private BukkitEventBridge eventBridge;
     private CommandManager commandManager;
 
     @Override
@@ -70,6 +74,7 @@ public abstract class ForgedPlugin extends LicensedPlugin {
         try {
             source.ensureDefaults(this.getClass().getClassLoader()); // expects /messages/<lang>.yml in plugin jar
             source.loadAll();
+            if (watchMessages()) source.watch();
         } catch (Exception ex) {
             throw new RuntimeException("i18n initialization failed", ex);
         }
@@ -88,11 +93,18 @@ public abstract class ForgedPlugin extends LicensedPlugin {
 
         Injector.wire(this, services);
 
-        scheduler = new NextForgeScheduler(Math.min(2, Runtime.getRuntime().availableProcessors() / 2), 10);
+        scheduler = new NextForgeScheduler(executorLimits(), syncBudget());
         scheduler.bindMainThread();
 
-        eventBus = new EventBus();
+        eventBus = new EventBus(scheduler);
+        eventBridge = new BukkitEventBridge(this, eventBus);
+        eventBridge.attach();
         eventBus.subscribe(ServerTickStartEvent.class, EventPriority.HIGHEST, e -> scheduler.tick());
+        eventBus.subscribe(ServerTickEndEvent.class, EventPriority.MONITOR, e -> eventBus.flushBatches());
+        eventBus.subscribe(ServerTickEndEvent.class, EventPriority.MONITOR,
+                e -> scheduler.tickEnd((long) (e.getTickDuration() * 1_000_000L), e.getTimeRemaining()));
+        services.register(NextForgeScheduler.class, scheduler);
+        services.register(EventBus.class, eventBus);
 
         // 4) Pre-enable hook (initialize services etc.)
         beforeEnable(services);
@@ -106,7 +118,10 @@ public abstract class ForgedPlugin extends LicensedPlugin {
         try {
             disable();
             services().get(CommandManager.class).ifPresent(CommandManager::unregisterAll);
+            if (eventBridge != null) eventBridge.close();
+            if (eventBus != null) eventBus.close();
             scheduler.close();
+            services().get(YamlMessageSource.class).ifPresent(YamlMessageSource::close);
             afterDisable();
         } finally {
             try { if (depManager != null) depManager.close(); } catch (Exception ignored) {}
@@ -149,9 +164,18 @@ public abstract class ForgedPlugin extends LicensedPlugin {
     /** Per-plugin supported locales (files: <data>/messages/<lang>.yml). */
     protected Set<Locale> pluginSupportedLocales() { return Set.of(Locale.ENGLISH); }
 
+    /** Per-plugin time budget for sync scheduler work per tick. */
+    protected SyncBudget syncBudget() { return SyncBudget.defaults(); }
+
+    /** Per-plugin sizing of the async CPU and I/O executors. */
+    protected ExecutorLimits executorLimits() { return ExecutorLimits.defaults(); }
+
     /** Per-plugin audience locale resolver. */
     protected LocaleResolver pluginLocaleResolver() { return new DefaultLocaleResolver(pluginDefaultLocale()); }
 
+    /** Reload {@code <data>/messages} automatically when its YAML files change. */
+    protected boolean watchMessages() { return true; }
+
     protected ServiceRegistry services() { return services; }
     protected DependencyManager dependencyManager() { return depManager; }
 }
@@ -0,0 +1,129 @@
+package gg.nextforge.core.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The async executors behind {@link NextForgeScheduler}: a bounded CPU pool, an elastic I/O pool
+ * (virtual threads on JVMs that have them, detected at runtime) and a single timer thread that
+ * never runs user code itself but only hands tasks off to the pools.
+ */
+final class AsyncExecutors {
+
+    final ThreadPoolExecutor cpu;
+    final ScheduledThreadPoolExecutor timer;
+    final ExecutorService ioDelegate;
+    final Executor io;
+    final boolean virtualThreads;
+
+    AsyncExecutors(ExecutorLimits limits) {
+        RejectionPolicy policy = limits.rejection();
+        this.cpu = new ThreadPoolExecutor(limits.cpuThreads(), limits.cpuThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(limits.cpuQueueCapacity()), threads("NextForge-CPU-", Thread.NORM_PRIORITY),
+                (r, ex) -> {
+                    if (ex.isShutdown()) throw new RejectedExecutionException("NextForge CPU pool is shut down");
+                    policy.reject(r, "NextForge CPU pool");
+                });
+
+        this.timer = new ScheduledThreadPoolExecutor(1, threads("NextForge-Timer", Thread.MAX_PRIORITY));
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        if (virtual != null) {
+            this.ioDelegate = virtual;
+        } else {
+            // elastic: threads up to ioThreads, idle ones time out; the limiter below bounds the backlog
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(limits.ioThreads(), limits.ioThreads(), 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), threads("NextForge-IO-", Thread.NORM_PRIORITY));
+            pool.allowCoreThreadTimeOut(true);
+            this.ioDelegate = pool;
+        }
+        this.io = new Limited(ioDelegate, limits.ioQueueCapacity(), policy);
+    }
+
+    /** Queued + running tasks of the I/O pool. */
+    int ioInFlight() {
+        return ((Limited) io).inFlight.get();
+    }
+
+    /** Stops all threads; tasks still queued on the pools are dropped, not run. */
+    void shutdownNow() {
+        timer.shutdownNow();
+        List<Runnable> queued = new ArrayList<>(cpu.shutdownNow());
+        queued.addAll(ioDelegate.shutdownNow());
+        for (Runnable r : queued) Droppable.dropped(r, new CancellationException("Scheduler closed"));
+    }
+
+    /* ---------------- internal ---------------- */
+
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()} if the runtime provides it (JDK 21+), else null. */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;                                        // older JVM or preview not enabled
+        }
+    }
+
+    private static ThreadFactory threads(String name, int priority) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name.endsWith("-") ? name + n.incrementAndGet() : name);
+            t.setDaemon(true);
+            t.setPriority(priority);
+            return t;
+        };
+    }
+
+    /** Caps the tasks in flight on an unbounded delegate; virtual-thread executors have no queue to bound. */
+    private static final class Limited implements Executor {
+        private final ExecutorService delegate;
+        private final int limit;
+        private final RejectionPolicy policy;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Limited(ExecutorService delegate, int limit, RejectionPolicy policy) {
+            this.delegate = delegate;
+            this.limit = limit;
+            this.policy = policy;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (delegate.isShutdown()) throw new RejectedExecutionException("NextForge I/O pool is shut down");
+            if (inFlight.incrementAndGet() > limit) {
+                inFlight.decrementAndGet();
+                policy.reject(task, "NextForge I/O pool");
+                return;
+            }
+            try {
+                delegate.execute(new Counted(task));
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();                     // shut down
+                throw e;
+            }
+        }
+
+        private final class Counted implements Runnable, Droppable {
+            final Runnable task;
+
+            Counted(Runnable task) {
+                this.task = task;
+            }
+
+            @Override public void run() {
+                try { task.run(); } finally { inFlight.decrementAndGet(); }
+            }
+
+            @Override public void drop(RuntimeException reason) {
+                inFlight.decrementAndGet();
+                Droppable.dropped(task, reason);
+            }
+        }
+    }
+}
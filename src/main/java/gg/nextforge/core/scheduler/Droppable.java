@@ -0,0 +1,14 @@
+package gg.nextforge.core.scheduler;
+
+/** Work that must learn when the scheduler drops it without running it (closed, or discarded by policy). */
+interface Droppable {
+
+    /** Called instead of running; may be called more than once. */
+    void drop(RuntimeException reason);
+
+    /** Forwards to {@code task}, or to the task a {@link NamedTask} wraps, if it is droppable. */
+    static void dropped(Runnable task, RuntimeException reason) {
+        if (task instanceof NamedTask n) task = n.task();
+        if (task instanceof Droppable d) d.drop(reason);
+    }
+}
@@ -0,0 +1,26 @@
+package gg.nextforge.core.scheduler;
+
+/**
+ * Sizing of the async executors.
+ * <p>
+ * {@code cpuThreads} is the fixed size of the CPU pool; {@code ioThreads} caps the platform-thread
+ * I/O pool and is ignored when virtual threads are available. The queue capacities limit how many
+ * tasks may wait (CPU) or be in flight (I/O) before {@code rejection} applies.
+ */
+public record ExecutorLimits(int cpuThreads, int cpuQueueCapacity, int ioThreads, int ioQueueCapacity,
+                             RejectionPolicy rejection) {
+
+    public ExecutorLimits {
+        cpuThreads = Math.max(1, cpuThreads);
+        cpuQueueCapacity = Math.max(1, cpuQueueCapacity);
+        ioThreads = Math.max(1, ioThreads);
+        ioQueueCapacity = Math.max(1, ioQueueCapacity);
+        if (rejection == null) rejection = RejectionPolicy.ABORT;
+    }
+
+    /** CPU pool sized to the cores left next to the main thread, 64 I/O threads, 10k queued tasks each. */
+    public static ExecutorLimits defaults() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return new ExecutorLimits(Math.max(2, cpus - 1), 10_000, 64, 10_000, RejectionPolicy.ABORT);
+    }
+}
@@ -0,0 +1,23 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick limit for {@link Scheduler#iterate}: a step stops at whichever comes first, the time slice
+ * or the item count. At least one item is processed per tick.
+ */
+public record IterationBudget(long nanosPerTick, int itemsPerTick) {
+
+    public IterationBudget {
+        nanosPerTick = Math.max(0L, nanosPerTick);
+        itemsPerTick = Math.max(1, itemsPerTick);
+    }
+
+    public static IterationBudget ofMillis(long millisPerTick) {
+        return new IterationBudget(TimeUnit.MILLISECONDS.toNanos(millisPerTick), Integer.MAX_VALUE);
+    }
+
+    public static IterationBudget ofItems(int itemsPerTick) {
+        return new IterationBudget(Long.MAX_VALUE, itemsPerTick);
+    }
+}
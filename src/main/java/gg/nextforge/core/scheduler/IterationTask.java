@@ -0,0 +1,80 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A job spread over ticks by {@link Scheduler#iterate}. Completes with the number of processed items;
+ * {@link #cancel()} stops it before the next item. Progress getters are safe from any thread.
+ */
+public final class IterationTask extends TaskFuture<Long> {
+
+    private final Spliterator<?> items;
+    private final Consumer<Object> consumer;
+    private final IterationBudget budget;
+    private final long total;                                // -1 if unknown
+    private volatile long processed;
+
+    @SuppressWarnings("unchecked")
+    <T> IterationTask(Scheduler scheduler, Spliterator<T> items, Consumer<? super T> consumer, IterationBudget budget) {
+        super(scheduler);
+        this.items = Objects.requireNonNull(items, "items");
+        this.consumer = (Consumer<Object>) Objects.requireNonNull(consumer, "consumer");
+        this.budget = Objects.requireNonNull(budget, "budget");
+        this.total = items.hasCharacteristics(Spliterator.SIZED) ? items.estimateSize() : -1L;
+    }
+
+    /** Items processed so far. */
+    public long processed() {
+        return processed;
+    }
+
+    /** Total items, or -1 if the source is not sized. */
+    public long total() {
+        return total;
+    }
+
+    /** Fraction done in [0, 1]; -1 if the total is unknown and the job is still running. */
+    public double progress() {
+        if (isDone()) return 1.0;
+        return total <= 0L ? -1.0 : Math.min(1.0, (double) processed / total);
+    }
+
+    /* ---------------- internal ---------------- */
+
+    /** One tick's slice; main thread. */
+    void step() {
+        if (isDone()) {                                      // finished before the handle was bound
+            stop();
+            return;
+        }
+        long deadline = System.nanoTime() + budget.nanosPerTick();
+        long n = processed;
+        int count = 0;
+        try {
+            boolean more = true;
+            while (count < budget.itemsPerTick() && !isDone()) {
+                if (count > 0 && budget.nanosPerTick() != Long.MAX_VALUE && System.nanoTime() >= deadline) break;
+                if (!(more = items.tryAdvance(consumer))) break;
+                count++;
+            }
+            processed = n + count;
+            if (!more) finish(null);
+        } catch (Throwable t) {
+            processed = n + count;
+            finish(t);
+        }
+    }
+
+    private void finish(Throwable error) {
+        if (error == null) complete(processed);
+        else completeExceptionally(error);
+        stop();
+    }
+
+    private void stop() {
+        TaskHandle t = task();
+        if (t != null) t.cancel();
+    }
+}
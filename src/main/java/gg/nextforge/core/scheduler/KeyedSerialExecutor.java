@@ -0,0 +1,164 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Actor-style executor: tasks for the same key run strictly in submission order, one at a time,
+ * tasks for different keys run in parallel on the backing executor.
+ * <p>
+ * Each key has a lane (a lock-free queue plus a pending counter) that is created on first use and
+ * dropped as soon as it runs empty, so idle keys cost nothing. A busy lane hands its pool thread
+ * back after {@value #BATCH} tasks so hot keys cannot starve others.
+ * <p>
+ * The backing executor must run or reject every task. The scheduler's pools also report tasks they
+ * discard ({@link RejectionPolicy#DISCARD}) or drop on close; other executors must not discard silently.
+ *
+ * <pre>{@code
+ * KeyedSerialExecutor<UUID> profiles = new KeyedSerialExecutor<>(scheduler.cpuExecutor());
+ * profiles.execute(player.getUniqueId(), () -> profile.addCoins(10));
+ * }</pre>
+ */
+public final class KeyedSerialExecutor<K> implements AutoCloseable {
+
+    private static final int BATCH = 64;
+    private static final int RETIRED = -1;
+
+    private final Executor executor;
+    private final Map<K, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Queues {@code task} behind all earlier tasks of {@code key}. If the backing executor rejects or
+     * discards a new lane, that lane is drained on the calling thread.
+     */
+    public void execute(K key, Runnable task) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(task, "task");
+        if (closed) throw new RejectedExecutionException("KeyedSerialExecutor is closed");
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(key, Lane::new);
+            if (lane.offer(task)) return;
+            lanes.remove(key, lane);                             // help retire, then retry with a fresh lane
+        }
+    }
+
+    /** Like {@link #execute}, completing the future with the supplier's result. */
+    public <T> CompletableFuture<T> submit(K key, Supplier<T> supplier) {
+        Objects.requireNonNull(supplier, "supplier");
+        CompletableFuture<T> f = new CompletableFuture<>();
+        execute(key, () -> {
+            try { f.complete(supplier.get()); }
+            catch (Throwable t) { f.completeExceptionally(t); }
+        });
+        return f;
+    }
+
+    /** Keys with queued or running tasks. */
+    public int activeKeys() {
+        return lanes.size();
+    }
+
+    /** Rejects new tasks; queued tasks still run. */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /* ---------------- internal ---------------- */
+
+    private final class Lane {
+        final K key;
+        final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();       // reserved tasks; RETIRED once dropped
+
+        Lane(K key) {
+            this.key = key;
+        }
+
+        /** @return false if the lane was retired meanwhile */
+        boolean offer(Runnable task) {
+            int n;
+            do {
+                n = pending.get();
+                if (n == RETIRED) return false;
+            } while (!pending.compareAndSet(n, n + 1));
+            queue.offer(task);
+            if (n == 0) schedule();                               // first task: nobody is draining
+            return true;
+        }
+
+        /**
+         * Drains up to BATCH tasks; retires the lane when it runs empty.
+         * @return true if tasks remain and the lane must be scheduled again
+         */
+        private boolean drainBatch() {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task;
+                while ((task = queue.poll()) == null) Thread.onSpinWait(); // reserved, offer in flight
+                try { task.run(); }
+                catch (Throwable t) { t.printStackTrace(); }
+                if (pending.decrementAndGet() == 0) {
+                    if (pending.compareAndSet(0, RETIRED)) lanes.remove(key, this);
+                    return false;                                 // else a new drain was scheduled
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Hands the lane to the executor; while it rejects or discards the hand-off, drains batches on
+         * this thread in a loop (no recursion).
+         */
+        private void schedule() {
+            while (true) {
+                Handoff h = new Handoff(this);
+                try {
+                    executor.execute(h);
+                    if (h.state.compareAndSet(Handoff.SUBMITTING, Handoff.SUBMITTED)) return;
+                } catch (RejectedExecutionException e) {
+                    // fall through: drain here
+                }
+                if (!drainBatch()) return;
+            }
+        }
+
+        /** The executor dropped a queued hand-off (closed): its tasks are lost, later ones start a fresh lane. */
+        private void abandon() {
+            pending.set(RETIRED);
+            lanes.remove(key, this);
+            queue.clear();
+        }
+    }
+
+    /** One submission of a lane; tells a discard during {@code execute} apart from a later drop. */
+    private final class Handoff implements Runnable, Droppable {
+        static final int SUBMITTING = 0, SUBMITTED = 1, DROPPED = 2;
+
+        final Lane lane;
+        final AtomicInteger state = new AtomicInteger(SUBMITTING);
+
+        Handoff(Lane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            if (lane.drainBatch()) lane.schedule();
+        }
+
+        @Override
+        public void drop(RuntimeException reason) {
+            if (state.compareAndSet(SUBMITTING, DROPPED)) return;   // schedule() drains on its thread
+            if (state.compareAndSet(SUBMITTED, DROPPED)) lane.abandon();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * One pending task per key for {@link Scheduler#debounce} and {@link Scheduler#coalesce}.
+ * <p>
+ * Resubmitting a key replaces its task and moves its deadline; the scheduled run is not cancelled
+ * but re-armed for the remaining delay when it fires early. All state changes of a key happen inside
+ * {@link ConcurrentHashMap#compute}, so a submission either lands in the pending run or starts a new one.
+ */
+final class KeyedTasks {
+
+    private final Map<Object, Pending> pending = new ConcurrentHashMap<>();
+    private final LongSupplier clock;                                    // now, in ticks
+    private final BiFunction<Runnable, Long, TaskHandle> schedule;       // (run, delay ticks) -> handle
+
+    KeyedTasks(LongSupplier clock, BiFunction<Runnable, Long, TaskHandle> schedule) {
+        this.clock = clock;
+        this.schedule = schedule;
+    }
+
+    TaskHandle submit(Object key, long delayTicks, Runnable task) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(task, "task");
+        long delay = Math.max(0L, delayTicks);
+        Pending[] created = new Pending[1];
+        Pending entry = pending.compute(key, (k, p) -> {
+            if (p == null) {
+                p = created[0] = new Pending(k, TaskTimings.nameOf(task));
+                p.deadline = clock.getAsLong() + delay;
+            } else {
+                p.deadline = Math.max(p.deadline, clock.getAsLong() + delay);
+            }
+            p.task = task;
+            return p;
+        });
+        if (created[0] != null) {
+            try {
+                entry.arm(delay);                                // outside compute: may run inline
+            } catch (RuntimeException | Error e) {
+                pending.remove(key, entry);                      // rejected: don't leave a dead entry behind
+                throw e;
+            }
+        }
+        return entry;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    void clear() {
+        pending.clear();
+    }
+
+    /* ---------------- models ---------------- */
+
+    private final class Pending implements Runnable, TaskHandle, Droppable {
+        final Object key;
+        final String name;
+        Runnable task;                                       // guarded by compute() on key
+        long deadline;
+        volatile TaskHandle handle;
+        volatile boolean cancelled;
+
+        Pending(Object key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        void arm(long delayTicks) {
+            handle = schedule.apply(NamedTask.of(name, this), delayTicks);
+        }
+
+        /** Fires at the scheduled time: re-arms if the deadline moved, else runs the latest task. */
+        @Override public void run() {
+            Runnable[] due = new Runnable[1];
+            long[] remaining = new long[1];
+            pending.computeIfPresent(key, (k, p) -> {
+                if (p != this) return p;
+                remaining[0] = deadline - clock.getAsLong();
+                if (remaining[0] > 0L) return this;
+                due[0] = task;
+                return null;
+            });
+            if (due[0] != null) due[0].run();
+            else if (remaining[0] > 0L) rearm(remaining[0]);
+        }
+
+        /** The scheduler dropped the run: free the key so the next submission starts over. */
+        @Override public void drop(RuntimeException reason) {
+            pending.remove(key, this);
+        }
+
+        private void rearm(long delayTicks) {
+            try {
+                arm(delayTicks);
+            } catch (RuntimeException | Error e) {
+                pending.remove(key, this);
+                throw e;
+            }
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+            if (pending.remove(key, this)) {
+                TaskHandle h = handle;
+                if (h != null) h.cancel();
+            }
+        }
+
+        @Override public boolean isCancelled() { return cancelled; }
+    }
+}
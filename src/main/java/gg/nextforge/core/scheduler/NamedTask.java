@@ -0,0 +1,21 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.Objects;
+
+/** A task with a display name for {@link TaskTimings}; unnamed tasks are reported by their class. */
+public record NamedTask(String name, Runnable task) implements Runnable {
+
+    public NamedTask {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(task, "task");
+    }
+
+    public static NamedTask of(String name, Runnable task) {
+        return new NamedTask(name, task);
+    }
+
+    @Override
+    public void run() {
+        task.run();
+    }
+}
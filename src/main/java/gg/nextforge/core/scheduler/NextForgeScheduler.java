@@ -5,27 +5,50 @@ package gg.nextforge.core.scheduler;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class NextForgeScheduler implements Scheduler {
 
     private static final long TICK_MILLIS = 50L;
 
-    private final ScheduledThreadPoolExecutor async;         // async timers & tasks
-    private final PriorityQueue<SyncTask> syncQueue;         // due by nextRunMillis
+    private final AsyncExecutors async;                      // CPU pool, I/O pool, hand-off timer
+    private final Queue<SyncTask> inbox = new ConcurrentLinkedQueue<>(); // lock-free submissions & cancels, any thread
+    private final TimingWheel wheel = new TimingWheel(0L);   // main thread only
+    @SuppressWarnings({"unchecked", "rawtypes"})             // generic array; due, not yet run, per priority (main thread only)
+    private final ArrayDeque<SyncTask>[] ready = new ArrayDeque[TaskPriority.values().length];
+    private volatile long currentTick;                       // written by tick() only
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final Executor syncExecutor = this::executeSync;
 
     private volatile Thread mainThread;                      // bound main thread
-    private final int maxSyncPerTick;                        // backpressure limit per tick
+    private final TaskTimings timings = new TaskTimings();   // off unless enabled
+    private final KeyedTasks syncKeyed = new KeyedTasks(() -> currentTick,
+            (task, delay) -> enqueueSync(task, delay, 0L, TaskPriority.NORMAL));
+    private final KeyedTasks asyncKeyed = new KeyedTasks(() -> System.nanoTime() / TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS),
+            (task, delay) -> runTaskLater(task, delay, false));
+    private final SyncBudget budget;                         // backpressure per tick
+    private long budgetNanos;                                // current adaptive NORMAL budget (main thread)
+    private long serverWorkEma = -1L;                        // EMA of tick time not spent in our sync work
+    private long syncNanosThisTick;
+    private long lastIdleTick = Long.MIN_VALUE;              // tick of the last tickEnd() call
 
+    /** Count-limited variant: at most {@code maxSyncPerTick} normal tasks per tick, within the default time budget. */
     public NextForgeScheduler(int asyncThreads, int maxSyncPerTick) {
-        this.async = new ScheduledThreadPoolExecutor(Math.max(1, asyncThreads), r -> {
-            Thread t = new Thread(r, "NextForge-AsyncScheduler");
-            t.setDaemon(true);
-            return t;
-        });
-        this.async.setRemoveOnCancelPolicy(true);
-        this.syncQueue = new PriorityQueue<>(Comparator.comparingLong(st -> st.nextRunMillis));
-        this.maxSyncPerTick = Math.max(1, maxSyncPerTick);
+        this(asyncThreads, new SyncBudget(SyncBudget.defaults().minNanos(), SyncBudget.defaults().maxNanos(),
+                SyncBudget.defaults().headroomNanos(), maxSyncPerTick));
+    }
+
+    /** {@code asyncThreads} sizes the CPU pool; other executor limits use the defaults. */
+    public NextForgeScheduler(int asyncThreads, SyncBudget budget) {
+        this(withCpuThreads(ExecutorLimits.defaults(), asyncThreads), budget);
+    }
+
+    public NextForgeScheduler(ExecutorLimits limits, SyncBudget budget) {
+        this.async = new AsyncExecutors(Objects.requireNonNull(limits, "limits"));
+        this.budget = Objects.requireNonNull(budget, "budget");
+        this.budgetNanos = budget.maxNanos();
+        for (int i = 0; i < ready.length; i++) ready[i] = new ArrayDeque<>();
     }
 
     @Override
@@ -41,37 +64,105 @@ public class NextForgeScheduler implements Scheduler {
     @Override
     public TaskHandle runTask(Runnable task, boolean sync) {
         if (sync) {
-            return enqueueSync(task, 0L, 0L);
+            return enqueueSync(task, 0L, 0L, TaskPriority.NORMAL);
         } else {
-            var f = async.submit(wrap(task));
-            return new AsyncHandle(f);
+            return submitAsync(task, async.cpu, "cpu");
         }
     }
 
     @Override
     public TaskHandle runTaskLater(Runnable task, long delayTicks, boolean sync) {
-        long delayMs = ticksToMillis(delayTicks);
-        if (sync) {
-            return enqueueSync(task, System.currentTimeMillis() + delayMs, 0L);
-        } else {
-            var f = async.schedule(wrap(task), Math.max(0L, delayMs), TimeUnit.MILLISECONDS);
-            return new AsyncHandle(f);
-        }
+        if (sync) return enqueueSync(task, delayTicks, 0L, TaskPriority.NORMAL);
+        if (delayTicks <= 0L) return submitAsync(task, async.cpu, "cpu");
+        return scheduleAsync(task, delayTicks, 0L, async.cpu, "cpu");
     }
 
     @Override
     public TaskHandle runTaskTimer(Runnable task, long delayTicks, long periodTicks, boolean sync) {
-        long delayMs = ticksToMillis(delayTicks);
-        long periodMs = ticksToMillis(periodTicks);
-        if (sync) {
-            return enqueueSync(task, System.currentTimeMillis() + delayMs, periodMs);
-        } else {
-            var f = async.scheduleAtFixedRate(wrap(task),
-                    Math.max(0L, delayMs),
-                    Math.max(TICK_MILLIS, periodMs),
-                    TimeUnit.MILLISECONDS);
-            return new AsyncHandle(f);
-        }
+        if (sync) return enqueueSync(task, delayTicks, periodTicks, TaskPriority.NORMAL);
+        return scheduleAsync(task, delayTicks, Math.max(1L, periodTicks), async.cpu, "cpu");
+    }
+
+    @Override
+    public TaskHandle runIoTask(Runnable task) {
+        return submitAsync(task, async.io, "io");
+    }
+
+    @Override
+    public TaskHandle runIoTaskLater(Runnable task, long delayTicks) {
+        return scheduleAsync(task, delayTicks, 0L, async.io, "io");
+    }
+
+    @Override
+    public TaskHandle runIoTaskTimer(Runnable task, long delayTicks, long periodTicks) {
+        return scheduleAsync(task, delayTicks, Math.max(1L, periodTicks), async.io, "io");
+    }
+
+    @Override
+    public Executor cpuExecutor() {
+        return async.cpu;
+    }
+
+    @Override
+    public Executor ioExecutor() {
+        return async.io;
+    }
+
+    @Override
+    public TaskHandle runTask(Runnable task, TaskPriority priority) {
+        return enqueueSync(task, 0L, 0L, priority);
+    }
+
+    @Override
+    public TaskHandle runTaskLater(Runnable task, long delayTicks, TaskPriority priority) {
+        return enqueueSync(task, delayTicks, 0L, priority);
+    }
+
+    @Override
+    public TaskHandle runTaskTimer(Runnable task, long delayTicks, long periodTicks, TaskPriority priority) {
+        return enqueueSync(task, delayTicks, periodTicks, priority);
+    }
+
+    @Override
+    public Executor syncExecutor() {
+        return syncExecutor;
+    }
+
+    @Override
+    public <T> TaskFuture<T> supplyAsync(Supplier<T> supplier) {
+        return TaskFuture.supply(this, supplier, r -> runTask(r, false));
+    }
+
+    @Override
+    public <T> TaskFuture<T> supplySync(Supplier<T> supplier) {
+        return TaskFuture.supply(this, supplier, r -> runTask(r, true));
+    }
+
+    @Override
+    public <T> TaskFuture<T> supplyIo(Supplier<T> supplier) {
+        return TaskFuture.supply(this, supplier, this::runIoTask);
+    }
+
+    @Override
+    public <T> IterationTask iterate(Iterable<T> items, Consumer<? super T> consumer, IterationBudget budget) {
+        return iterate(items.spliterator(), consumer, budget);
+    }
+
+    @Override
+    public <T> IterationTask iterate(Spliterator<T> items, Consumer<? super T> consumer, IterationBudget budget) {
+        IterationTask job = new IterationTask(this, items, consumer, budget);
+        job.task(enqueueSync(NamedTask.of("iterate " + TaskTimings.nameOf(consumer), job::step), 0L, 1L, TaskPriority.NORMAL));
+        return job;
+    }
+
+    @Override
+    public TaskHandle debounce(Object key, long delayTicks, Runnable task, boolean sync) {
+        return (sync ? syncKeyed : asyncKeyed).submit(key, delayTicks, task);
+    }
+
+    @Override
+    public TaskHandle coalesce(Object key, Runnable task, boolean sync) {
+        return (sync ? syncKeyed : asyncKeyed).submit(key, 0L, task);
     }
 
     @Override
@@ -79,39 +170,127 @@ public class NextForgeScheduler implements Scheduler {
         if (closed.get()) return;
         assertMain();
 
-        long now = System.currentTimeMillis();
-        int executed = 0;
+        long start = System.nanoTime();
+        drainInbox();
+        wheel.advance(this::onDue);
+        currentTick = wheel.now();
 
-        while (!syncQueue.isEmpty() && executed < maxSyncPerTick) {
-            SyncTask st = syncQueue.peek();
-            if (st.cancelled.get()) { syncQueue.poll(); continue; }
-            if (st.nextRunMillis > now) break;
+        runReady(TaskPriority.CRITICAL, Long.MAX_VALUE, Integer.MAX_VALUE);
+        long deadline = start + budgetNanos;
+        runReady(TaskPriority.NORMAL, deadline, budget.maxTasksPerTick());
 
-            syncQueue.poll(); // pop
-            try { st.task.run(); }
-            catch (Throwable t) { t.printStackTrace(); }
+        // no idle phase driver (tickEnd not called lately): give background work the leftover budget
+        if (lastIdleTick < currentTick - 1) runReady(TaskPriority.BACKGROUND, deadline, Integer.MAX_VALUE);
 
-            executed++;
+        syncNanosThisTick = System.nanoTime() - start;
+    }
 
-            if (!st.cancelled.get() && st.periodMillis > 0L) {
-                st.nextRunMillis = now + st.periodMillis;
-                syncQueue.offer(st);
-            }
-        }
+    @Override
+    public void tickEnd(long tickDurationNanos, long remainingNanos) {
+        if (closed.get()) return;
+        assertMain();
+        lastIdleTick = currentTick;
+        adaptBudget(tickDurationNanos);
+        if (timings.enabled()) sampleMetrics(tickDurationNanos);
+
+        long idle = remainingNanos - budget.headroomNanos();
+        if (idle > 0L) runReady(TaskPriority.BACKGROUND, System.nanoTime() + idle, Integer.MAX_VALUE);
+    }
+
+    /** Number of pending sync tasks (scheduled in the wheel or due and waiting). Main thread only. */
+    public int pendingSyncTasks() {
+        int n = wheel.size();
+        for (ArrayDeque<SyncTask> q : ready) n += q.size();
+        return n;
+    }
+
+    /** Current adaptive time budget for normal-priority sync work per tick, in nanoseconds. */
+    public long syncBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /** Profiler of this scheduler; disabled until {@code timings().enabled(true)}. */
+    public TaskTimings timings() {
+        return timings;
+    }
+
+    /** Tasks waiting in the CPU pool queue. */
+    public int cpuQueueDepth() {
+        return async.cpu.getQueue().size();
+    }
+
+    /** Tasks queued or running on the I/O pool. */
+    public int ioInFlight() {
+        return async.ioInFlight();
+    }
+
+    /** Whether the I/O pool runs on virtual threads. */
+    public boolean usesVirtualThreads() {
+        return async.virtualThreads;
     }
 
     @Override
     public void close() {
         if (!closed.compareAndSet(false, true)) return;
-        // cancel all sync tasks
-        for (SyncTask st : new ArrayList<>(syncQueue)) st.cancelled.set(true);
-        syncQueue.clear();
-        // shutdown async executor
+        // cancel all sync tasks; futures waiting for them fail
+        for (SyncTask st; (st = inbox.poll()) != null; ) drop(st);
+        for (ArrayDeque<SyncTask> q : ready) {
+            for (SyncTask st : q) drop(st);
+            q.clear();
+        }
+        if (isMainThread()) wheel.clear(n -> drop((SyncTask) n));
+        syncKeyed.clear();
+        asyncKeyed.clear();
+        // shutdown async executors
         async.shutdownNow();
     }
 
     /* ---------------- internal ---------------- */
 
+    /** Runs due tasks of one class until the deadline or the count limit; at least one task makes progress. */
+    private void runReady(TaskPriority priority, long deadlineNanos, int maxTasks) {
+        ArrayDeque<SyncTask> queue = ready[priority.ordinal()];
+        boolean timed = timings.enabled();
+        int executed = 0;
+        while (executed < maxTasks) {
+            if (executed > 0 && System.nanoTime() >= deadlineNanos) break;
+            SyncTask st = queue.poll();
+            if (st == null) break;
+            if (st.cancelled.get()) continue;
+
+            long start = timed ? System.nanoTime() : 0L;
+            try { st.task.run(); }
+            catch (Throwable t) { t.printStackTrace(); }
+            if (timed) timings.task(st.name(), System.nanoTime() - start);
+
+            executed++;
+
+            if (!st.cancelled.get() && st.periodTicks > 0L) {
+                st.deadline = wheel.now() + st.periodTicks;
+                if (!wheel.schedule(st)) queue.add(st);
+            }
+        }
+    }
+
+    private void sampleMetrics(long tickDurationNanos) {
+        timings.metric("tick", tickDurationNanos);
+        timings.metric("sync-work", syncNanosThisTick);
+        timings.metric("sync-budget", budgetNanos);
+        timings.metric("sync-pending", pendingSyncTasks());
+        timings.metric("cpu-queue", async.cpu.getQueue().size());
+        timings.metric("cpu-active", async.cpu.getActiveCount());
+        timings.metric("io-in-flight", async.ioInFlight());
+    }
+
+    /** Budget = tick length - server's own work - headroom, clamped; server work as EMA (alpha 1/8). */
+    private void adaptBudget(long tickDurationNanos) {
+        if (tickDurationNanos <= 0L) return;
+        long serverWork = Math.max(0L, tickDurationNanos - syncNanosThisTick);
+        serverWorkEma = serverWorkEma < 0L ? serverWork : serverWorkEma + ((serverWork - serverWorkEma) >> 3);
+        long free = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS) - serverWorkEma - budget.headroomNanos();
+        budgetNanos = Math.max(budget.minNanos(), Math.min(budget.maxNanos(), free));
+    }
+
     private void assertMain() {
         if (mainThread == null)
             throw new IllegalStateException("Main thread not bound. Call bindMainThread() on the server thread.");
@@ -119,45 +298,165 @@ public class NextForgeScheduler implements Scheduler {
             throw new IllegalStateException("tick() must be called on the bound main thread.");
     }
 
+    private static ExecutorLimits withCpuThreads(ExecutorLimits l, int cpuThreads) {
+        return new ExecutorLimits(cpuThreads, l.cpuQueueCapacity(), l.ioThreads(), l.ioQueueCapacity(), l.rejection());
+    }
+
+    private TaskHandle submitAsync(Runnable task, Executor target, String pool) {
+        AsyncTask t = new AsyncTask(task, target, pool);
+        t.run();
+        return t;
+    }
+
+    /** The timer thread only fires the hand-off; the task itself runs on {@code target}. */
+    private TaskHandle scheduleAsync(Runnable task, long delayTicks, long periodTicks, Executor target, String pool) {
+        AsyncTask t = new AsyncTask(task, target, pool);
+        long delayMs = ticksToMillis(delayTicks);
+        t.timer = periodTicks > 0L
+                ? async.timer.scheduleAtFixedRate(t, delayMs, Math.max(TICK_MILLIS, ticksToMillis(periodTicks)), TimeUnit.MILLISECONDS)
+                : async.timer.schedule(t, delayMs, TimeUnit.MILLISECONDS);
+        if (t.cancelled) t.timer.cancel(false);               // cancelled before the future was published
+        return t;
+    }
+
     private static long ticksToMillis(long ticks) {
         return Math.max(0L, ticks) * TICK_MILLIS;
     }
 
-    private Runnable wrap(Runnable r) {
-        return () -> {
-            if (closed.get()) return;
-            try { r.run(); } catch (Throwable t) { t.printStackTrace(); }
-        };
+    /** Lock-free from any thread; the task enters the wheel at the start of the next tick(). */
+    private TaskHandle enqueueSync(Runnable task, long delayTicks, long periodTicks, TaskPriority priority) {
+        SyncTask st = new SyncTask(task, currentTick + Math.max(0L, delayTicks), periodTicks,
+                Objects.requireNonNull(priority, "priority"));
+        inbox.offer(st);
+        if (closed.get() && inbox.remove(st)) drop(st);       // raced with close(): nobody drains the inbox
+        return st;
     }
 
-    private TaskHandle enqueueSync(Runnable task, long firstRunMillis, long periodMs) {
-        SyncTask st = new SyncTask(task, firstRunMillis <= 0 ? System.currentTimeMillis() : firstRunMillis, periodMs);
-        synchronized (syncQueue) { syncQueue.offer(st); }
-        return st;
+    /** {@link #syncExecutor()}: rejects once closed, so dependent stages fail instead of waiting forever. */
+    private void executeSync(Runnable task) {
+        if (closed.get() || enqueueSync(task, 0L, 0L, TaskPriority.NORMAL).isCancelled())
+            throw new RejectedExecutionException("Scheduler is closed");
+    }
+
+    private static void drop(SyncTask st) {
+        if (st.cancelled.compareAndSet(false, true)) Droppable.dropped(st.task, new CancellationException("Scheduler closed"));
+    }
+
+    /** Moves submissions into the wheel and applies cancellations eagerly. */
+    private void drainInbox() {
+        for (SyncTask st; (st = inbox.poll()) != null; ) {
+            if (st.cancelled.get()) {
+                wheel.cancel(st);                             // no-op if never scheduled
+            } else if (!st.scheduled() && !wheel.schedule(st)) {
+                onDue(st);                                    // already due
+            }
+        }
+    }
+
+    private void onDue(TimingWheel.Node node) {
+        SyncTask st = (SyncTask) node;
+        ready[st.priority.ordinal()].add(st);
     }
 
     /* ---------------- models ---------------- */
 
-    private static final class SyncTask implements TaskHandle {
+    private final class SyncTask extends TimingWheel.Node implements TaskHandle {
         final Runnable task;
         final AtomicBoolean cancelled = new AtomicBoolean(false);
-        long nextRunMillis;
-        final long periodMillis;
+        final long periodTicks;
+        final TaskPriority priority;
+        String name;                                          // display name for timings, on first timed run
 
-        SyncTask(Runnable task, long nextRunMillis, long periodMillis) {
+        SyncTask(Runnable task, long deadline, long periodTicks, TaskPriority priority) {
             this.task = Objects.requireNonNull(task, "task");
-            this.nextRunMillis = nextRunMillis;
-            this.periodMillis = Math.max(0L, periodMillis);
+            this.deadline = deadline;
+            this.periodTicks = Math.max(0L, periodTicks);
+            this.priority = priority;
+        }
+
+        @Override public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) return;
+            if (isMainThread()) wheel.cancel(this);           // eager O(1) unlink
+            else inbox.offer(this);                           // unlinked at the start of the next tick
         }
 
-        @Override public void cancel() { cancelled.set(true); }
         @Override public boolean isCancelled() { return cancelled.get(); }
+
+        String name() {
+            if (name == null) name = "sync: " + TaskTimings.nameOf(task);
+            return name;
+        }
     }
 
-    private static final class AsyncHandle implements TaskHandle {
-        private final Future<?> f;
-        AsyncHandle(Future<?> f) { this.f = f; }
-        @Override public void cancel() { f.cancel(true); }
-        @Override public boolean isCancelled() { return f.isCancelled(); }
+    /** Async task, possibly delayed or repeating; a period is skipped while the previous run is still busy. */
+    private final class AsyncTask implements Runnable, TaskHandle {
+        final Runnable task;
+        final Executor target;
+        final String pool;
+        String name;                                          // display name for timings, on first timed run
+        final AtomicBoolean running = new AtomicBoolean(false);
+        volatile Future<?> timer;
+        volatile boolean cancelled;
+
+        AsyncTask(Runnable task, Executor target, String pool) {
+            this.task = Objects.requireNonNull(task, "task");
+            this.target = target;
+            this.pool = pool;
+        }
+
+        /** Hand-off; on the timer thread for scheduled tasks. */
+        @Override public void run() {
+            if (cancelled) return;
+            long queuedAt = timings.enabled() ? System.nanoTime() : Long.MIN_VALUE;
+            try {
+                target.execute(new Handoff(queuedAt));
+            } catch (RejectedExecutionException e) {
+                if (timer == null) throw e;                   // direct submission: let the caller see it
+                e.printStackTrace();
+            }
+        }
+
+        private void execute(long queuedAt) {
+            if (closed.get()) {
+                Droppable.dropped(task, new CancellationException("Scheduler closed"));
+                return;
+            }
+            if (cancelled || !running.compareAndSet(false, true)) return;
+            long start = queuedAt != Long.MIN_VALUE ? System.nanoTime() : 0L;
+            try { task.run(); }
+            catch (Throwable t) { t.printStackTrace(); }
+            finally { running.set(false); }
+            if (queuedAt != Long.MIN_VALUE) {
+                timings.metric(pool + "-wait", start - queuedAt);
+                if (name == null) name = pool + ": " + TaskTimings.nameOf(task);
+                timings.task(name, System.nanoTime() - start);
+            }
+        }
+
+        /** Stops further runs; a run already handed off completes. */
+        @Override public void cancel() {
+            cancelled = true;
+            Future<?> f = timer;
+            if (f != null) f.cancel(false);
+        }
+
+        @Override public boolean isCancelled() { return cancelled; }
+
+        /** One run on the target pool; a pool that drops it passes the drop on to the task. */
+        private final class Handoff implements Runnable, Droppable {
+            final long queuedAt;
+
+            Handoff(long queuedAt) {
+                this.queuedAt = queuedAt;
+            }
+
+            @Override public void run() {
+                execute(queuedAt);
+            }
+
+            @Override public void drop(RuntimeException reason) {
+                Droppable.dropped(task, reason);
+            }
+        }
     }
 }
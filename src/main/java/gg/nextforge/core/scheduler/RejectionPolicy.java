@@ -0,0 +1,22 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/** What an async executor does with a task when its queue-depth limit is reached. */
+public enum RejectionPolicy {
+    /** Throws {@link RejectedExecutionException} to the submitter. */
+    ABORT,
+    /** Runs the task on the submitting thread (the main thread or the timer thread, too - use with care). */
+    CALLER_RUNS,
+    /** Drops the task; a {@link TaskFuture} waiting for it fails with {@link RejectedExecutionException}. */
+    DISCARD;
+
+    /** Applies this policy to a task that did not fit. */
+    void reject(Runnable task, String executor) {
+        switch (this) {
+            case ABORT -> throw new RejectedExecutionException(executor + " queue is full");
+            case CALLER_RUNS -> task.run();
+            case DISCARD -> Droppable.dropped(task, new RejectedExecutionException(executor + " queue is full"));
+        }
+    }
+}
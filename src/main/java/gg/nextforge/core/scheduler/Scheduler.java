@@ -1,13 +1,71 @@
 package gg.nextforge.core.scheduler;
 
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 public interface Scheduler extends AutoCloseable {
     TaskHandle runTask(Runnable task, boolean sync);
     TaskHandle runTaskLater(Runnable task, long delayTicks, boolean sync);
     TaskHandle runTaskTimer(Runnable task, long delayTicks, long periodTicks, boolean sync);
 
+    /** Sync task with an explicit priority class. */
+    TaskHandle runTask(Runnable task, TaskPriority priority);
+    TaskHandle runTaskLater(Runnable task, long delayTicks, TaskPriority priority);
+    TaskHandle runTaskTimer(Runnable task, long delayTicks, long periodTicks, TaskPriority priority);
+
+    /** Async task on the elastic I/O pool, for blocking work (database, HTTP, files). */
+    TaskHandle runIoTask(Runnable task);
+    TaskHandle runIoTaskLater(Runnable task, long delayTicks);
+    TaskHandle runIoTaskTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /** Bounded pool for CPU-bound async work; {@code runTask(task, false)} runs here. */
+    Executor cpuExecutor();
+
+    /** Elastic pool for blocking I/O; virtual threads when the runtime supports them. */
+    Executor ioExecutor();
+
+    /** Sync queue as an {@link Executor}: tasks run on the main thread at the next {@link #tick()}. */
+    Executor syncExecutor();
+
+    /** Computes a value on the CPU pool. */
+    <T> TaskFuture<T> supplyAsync(Supplier<T> supplier);
+
+    /** Computes a value on the main thread. */
+    <T> TaskFuture<T> supplySync(Supplier<T> supplier);
+
+    /** Computes a value on the I/O pool. */
+    <T> TaskFuture<T> supplyIo(Supplier<T> supplier);
+
+    /**
+     * Feeds {@code items} to {@code consumer} on the main thread, a slice per tick within {@code budget}.
+     * Don't modify the source while the job runs; iterate over a copy if it may change.
+     */
+    <T> IterationTask iterate(Iterable<T> items, Consumer<? super T> consumer, IterationBudget budget);
+    <T> IterationTask iterate(Spliterator<T> items, Consumer<? super T> consumer, IterationBudget budget);
+
+    /**
+     * Runs {@code task} once, {@code delayTicks} after the last submission for {@code key}. Resubmitting
+     * replaces the pending task and restarts the delay. Keys of sync and async tasks are separate.
+     */
+    TaskHandle debounce(Object key, long delayTicks, Runnable task, boolean sync);
+
+    /**
+     * Runs {@code task} once at the next opportunity (next tick for sync); submissions for {@code key}
+     * until then replace the pending task. A submission while the task runs schedules another run.
+     */
+    TaskHandle coalesce(Object key, Runnable task, boolean sync);
+
     /** Must be called from the server main thread once per tick. */
     void tick();
 
+    /**
+     * Idle phase at tick end (main thread): runs background tasks in the time left of the tick
+     * and feeds the measured tick duration into the adaptive sync budget.
+     */
+    void tickEnd(long tickDurationNanos, long remainingNanos);
+
     /** Bind the current thread as the main thread (call in onEnable on main). */
     void bindMainThread();
 
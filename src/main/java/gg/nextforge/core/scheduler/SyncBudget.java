@@ -0,0 +1,29 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget for {@link TaskPriority#NORMAL} sync work per tick.
+ * <p>
+ * The effective budget adapts to measured MSPT: 50 ms minus the server's own tick work minus
+ * {@code headroomNanos}, clamped to [{@code minNanos}, {@code maxNanos}]. {@code maxTasksPerTick}
+ * is an optional hard cap on top ({@code Integer.MAX_VALUE} = none).
+ */
+public record SyncBudget(long minNanos, long maxNanos, long headroomNanos, int maxTasksPerTick) {
+
+    public SyncBudget {
+        if (minNanos < 0 || maxNanos < minNanos) throw new IllegalArgumentException("Invalid budget range");
+        headroomNanos = Math.max(0L, headroomNanos);
+        maxTasksPerTick = Math.max(1, maxTasksPerTick);
+    }
+
+    public static SyncBudget ofMillis(long minMillis, long maxMillis, long headroomMillis) {
+        return new SyncBudget(TimeUnit.MILLISECONDS.toNanos(minMillis), TimeUnit.MILLISECONDS.toNanos(maxMillis),
+                TimeUnit.MILLISECONDS.toNanos(headroomMillis), Integer.MAX_VALUE);
+    }
+
+    /** 1–20 ms per tick, keeping 5 ms of the 50 ms tick free. */
+    public static SyncBudget defaults() {
+        return ofMillis(1, 20, 5);
+    }
+}
@@ -0,0 +1,127 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Result of a scheduled task that composes across the main thread and the async pools.
+ * <p>
+ * Every dependent stage (including plain {@code thenApply}, {@code thenCompose}, ...) is again a
+ * {@code TaskFuture} bound to the same scheduler; async stages without an explicit executor use the
+ * CPU pool. Cancelling a stage, or letting it time out, cancels its upstream stages and the
+ * underlying scheduled task too, so abandoned chains stop early. Note that this also cancels sibling
+ * stages that depend on the same upstream.
+ */
+public class TaskFuture<T> extends CompletableFuture<T> implements TaskHandle {
+
+    private final Scheduler scheduler;
+    private volatile TaskFuture<?> upstream;                 // stage this one was derived from
+    private volatile TaskHandle task;                        // scheduled work producing this stage
+
+    public TaskFuture(Scheduler scheduler) {
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    /** Runs {@code supplier} through {@code submit} and completes the future with its result. */
+    static <T> TaskFuture<T> supply(Scheduler scheduler, Supplier<T> supplier, Function<Runnable, TaskHandle> submit) {
+        Objects.requireNonNull(supplier, "supplier");
+        TaskFuture<T> f = new TaskFuture<>(scheduler);
+        try {
+            f.task = submit.apply(NamedTask.of(TaskTimings.nameOf(supplier), new Supply<>(f, supplier)));
+        } catch (RejectedExecutionException e) {
+            f.completeExceptionally(e);
+        }
+        return f;
+    }
+
+    /** Continues on the main thread (next sync pump). */
+    public <U> TaskFuture<U> thenSync(Function<? super T, ? extends U> fn) {
+        return (TaskFuture<U>) this.<U>thenApplyAsync(fn, scheduler.syncExecutor());
+    }
+
+    /** Consumes the result on the main thread (next sync pump). */
+    public TaskFuture<Void> thenAcceptSync(Consumer<? super T> action) {
+        return (TaskFuture<Void>) thenAcceptAsync(action, scheduler.syncExecutor());
+    }
+
+    /** Continues on the CPU pool. */
+    public <U> TaskFuture<U> thenAsync(Function<? super T, ? extends U> fn) {
+        return (TaskFuture<U>) this.<U>thenApplyAsync(fn, scheduler.cpuExecutor());
+    }
+
+    /** Continues on the I/O pool. */
+    public <U> TaskFuture<U> thenIo(Function<? super T, ? extends U> fn) {
+        return (TaskFuture<U>) this.<U>thenApplyAsync(fn, scheduler.ioExecutor());
+    }
+
+    /**
+     * Fails this stage with a {@link TimeoutException} if it is not done within {@code ticks}
+     * and cancels the work upstream of it.
+     */
+    public TaskFuture<T> timeout(long ticks) {
+        if (isDone()) return this;
+        TaskHandle timer = scheduler.runTaskLater(() -> {
+            if (completeExceptionally(new TimeoutException("Timed out after " + ticks + " ticks"))) cancelUpstream();
+        }, ticks, false);
+        whenComplete((v, t) -> timer.cancel());
+        return this;
+    }
+
+    /** {@link TaskHandle} view: same as {@code cancel(false)}. */
+    @Override
+    public void cancel() {
+        cancel(false);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) cancelUpstream();
+        return cancelled;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        TaskFuture<U> f = new TaskFuture<>(scheduler);
+        f.upstream = this;
+        return f;
+    }
+
+    @Override
+    public Executor defaultExecutor() {
+        return scheduler.cpuExecutor();
+    }
+
+    /* ---------------- internal ---------------- */
+
+    TaskHandle task() {
+        return task;
+    }
+
+    void task(TaskHandle task) {
+        this.task = task;
+    }
+
+    /** Completes the future with the supplier's result, or fails it if the scheduler drops the task. */
+    private record Supply<T>(TaskFuture<T> future, Supplier<T> supplier) implements Runnable, Droppable {
+        @Override public void run() {
+            if (future.isDone()) return;                         // cancelled or timed out meanwhile
+            try { future.complete(supplier.get()); }
+            catch (Throwable t) { future.completeExceptionally(t); }
+        }
+
+        @Override public void drop(RuntimeException reason) {
+            future.completeExceptionally(reason);
+        }
+    }
+
+    private void cancelUpstream() {
+        TaskHandle t = task;
+        if (t != null) t.cancel();
+        TaskFuture<?> up = upstream;
+        if (up != null) up.cancel(false);
+    }
+}
@@ -0,0 +1,11 @@
+package gg.nextforge.core.scheduler;
+
+/** Priority class of a sync task. */
+public enum TaskPriority {
+    /** Runs every tick it is due, regardless of the time budget. */
+    CRITICAL,
+    /** Runs within the per-tick time budget; leftovers move to the next tick in order. */
+    NORMAL,
+    /** Runs only in the idle phase at tick end, with whatever time is left of the tick. */
+    BACKGROUND
+}
@@ -0,0 +1,159 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional profiler of the scheduler: per-task run time, async wait time, tick duration and queue depths.
+ * <p>
+ * Disabled by default; then the scheduler only reads one volatile flag per task. When enabled a task
+ * costs two {@code nanoTime} reads (three for async tasks, which also record their queue wait).
+ * Samples go into a ring of {@value #SLOT_SECONDS}-second slots, each with a log2 histogram, so reports
+ * cover any window of up to {@value #WINDOW_SECONDS} seconds (rounded up to whole slots).
+ */
+public final class TaskTimings {
+
+    /** Longest window a report can cover. */
+    public static final int WINDOW_SECONDS = 300;
+
+    private static final int SLOT_SECONDS = 5;
+    private static final int SLOTS = WINDOW_SECONDS / SLOT_SECONDS;
+    private static final int BUCKETS = 48;                   // bucket b: values in [2^(b-1), 2^b), bucket 0: zero
+
+    private static final ClassValue<String> CLASS_NAMES = new ClassValue<>() {
+        @Override protected String computeValue(Class<?> type) {
+            String n = type.getName();
+            int lambda = n.indexOf("$$Lambda");
+            if (lambda >= 0) n = n.substring(0, lambda) + "::lambda";
+            return n.substring(n.lastIndexOf('.') + 1);
+        }
+    };
+
+    private final Map<String, Series> tasks = new ConcurrentHashMap<>();
+    private final Map<String, Series> metrics = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public void enabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Drops all samples. */
+    public void reset() {
+        tasks.clear();
+        metrics.clear();
+    }
+
+    /** Display name of a task: the {@link NamedTask} name or the (outer) class name. */
+    public static String nameOf(Object task) {
+        return task instanceof NamedTask named ? named.name() : CLASS_NAMES.get(task.getClass());
+    }
+
+    /** Records a task run (nanoseconds) under {@code name}. */
+    public void task(String name, long nanos) {
+        tasks.computeIfAbsent(name, k -> new Series()).record(nanos);
+    }
+
+    /** Records a sample of a scheduler metric (durations in nanoseconds, depths as counts). */
+    public void metric(String name, long value) {
+        metrics.computeIfAbsent(name, k -> new Series()).record(value);
+    }
+
+    /** Tasks with the most total run time within the last {@code seconds}, at most {@code limit}. */
+    public List<Entry> topTasks(int seconds, int limit) {
+        List<Entry> out = collect(tasks, seconds);
+        out.sort(Comparator.comparingLong(Entry::total).reversed());
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    /** All metrics within the last {@code seconds}, by name. */
+    public List<Entry> metrics(int seconds) {
+        List<Entry> out = collect(metrics, seconds);
+        out.sort(Comparator.comparing(Entry::name));
+        return out;
+    }
+
+    /** Aggregate of one series over a window. */
+    public record Entry(String name, long count, long total, long max, long p95) {
+        public long average() {
+            return count == 0L ? 0L : total / count;
+        }
+    }
+
+    /* ---------------- internal ---------------- */
+
+    private static List<Entry> collect(Map<String, Series> series, int seconds) {
+        int window = (Math.max(1, Math.min(WINDOW_SECONDS, seconds)) + SLOT_SECONDS - 1) / SLOT_SECONDS;
+        long now = nowSlot();
+        List<Entry> out = new ArrayList<>(series.size());
+        for (var e : series.entrySet()) {
+            Entry entry = e.getValue().aggregate(e.getKey(), now, window);
+            if (entry.count() > 0L) out.add(entry);
+        }
+        return out;
+    }
+
+    private static long nowSlot() {
+        return System.nanoTime() / (SLOT_SECONDS * 1_000_000_000L);
+    }
+
+    private static int bucket(long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, value)));
+    }
+
+    /** Upper bound of a bucket, used as the percentile estimate. */
+    private static long bucketLimit(int bucket) {
+        return (1L << bucket) - 1L;
+    }
+
+    /** Ring of slots; a slot is reused (cleared) when its time comes round again. */
+    private static final class Series {
+        private final long[] slot = new long[SLOTS];
+        private final long[] count = new long[SLOTS];
+        private final long[] total = new long[SLOTS];
+        private final long[] max = new long[SLOTS];
+        private final long[][] histogram = new long[SLOTS][BUCKETS];
+
+        Series() {
+            Arrays.fill(slot, Long.MIN_VALUE);
+        }
+
+        synchronized void record(long value) {
+            long now = nowSlot();
+            int i = (int) Math.floorMod(now, (long) SLOTS);
+            if (slot[i] != now) {
+                slot[i] = now;
+                count[i] = total[i] = max[i] = 0L;
+                Arrays.fill(histogram[i], 0L);
+            }
+            count[i]++;
+            total[i] += value;
+            if (value > max[i]) max[i] = value;
+            histogram[i][bucket(value)]++;
+        }
+
+        synchronized Entry aggregate(String name, long now, int window) {
+            long n = 0L, sum = 0L, peak = 0L;
+            long[] h = new long[BUCKETS];
+            for (int i = 0; i < SLOTS; i++) {
+                if (slot[i] <= now - window || slot[i] > now) continue;
+                n += count[i];
+                sum += total[i];
+                peak = Math.max(peak, max[i]);
+                for (int b = 0; b < BUCKETS; b++) h[b] += histogram[i][b];
+            }
+            long p95 = 0L, rank = (long) Math.ceil(n * 0.95), seen = 0L;
+            for (int b = 0; b < BUCKETS && n > 0L; b++) {
+                seen += h[b];
+                if (seen >= rank) {
+                    p95 = Math.min(peak, bucketLimit(b));
+                    break;
+                }
+            }
+            return new Entry(name, n, sum, peak, p95);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package gg.nextforge.core.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keyed in ticks. Main thread only.
+ * <p>
+ * Four levels of 64 slots each (1, 64, 4096, 262144 ticks per slot) cover ~9.7 days; later deadlines
+ * wait in an overflow list. A node sits in the lowest level whose slot span still contains both
+ * "now" and its deadline, and cascades down as time reaches its slot. Scheduling and cancelling
+ * are O(1) (intrusive doubly linked slots), advancing is O(expired) plus an occasional cascade.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /** Intrusive list node; extended by scheduled tasks. */
+    abstract static class Node {
+        long deadline;                                      // absolute tick
+        Node prev, next;
+        Slot slot;                                          // null: not in the wheel
+
+        boolean scheduled() { return slot != null; }
+    }
+
+    static final class Slot {
+        final Node head = new Node() {};                    // sentinel of a circular list
+        Slot() { head.prev = head; head.next = head; }
+        boolean isEmpty() { return head.next == head; }
+    }
+
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+    private final Slot overflow = new Slot();
+    private long now;
+    private int size;
+
+    TimingWheel(long startTick) {
+        this.now = startTick;
+        for (Slot[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) level[i] = new Slot();
+        }
+    }
+
+    long now() { return now; }
+
+    int size() { return size; }
+
+    /**
+     * Places the node by its deadline.
+     * @return false if the deadline is not in the future; the caller should run it right away
+     */
+    boolean schedule(Node node) {
+        if (node.deadline <= now) return false;
+        link(slotFor(node.deadline), node);
+        size++;
+        return true;
+    }
+
+    /** O(1) removal; no-op if the node is not scheduled. */
+    void cancel(Node node) {
+        if (node.slot == null) return;
+        unlink(node);
+        size--;
+    }
+
+    /** Moves time forward by one tick and hands every node due at the new tick to {@code expired}. */
+    void advance(Consumer<Node> expired) {
+        long t = ++now;
+        if ((t & ((1L << (BITS * LEVELS)) - 1)) == 0) cascade(overflow);
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((t & ((1L << (BITS * level)) - 1)) == 0) {
+                cascade(levels[level][(int) (t >>> (BITS * level)) & MASK]);
+            }
+        }
+        Slot due = levels[0][(int) t & MASK];
+        while (!due.isEmpty()) {
+            Node n = due.head.next;
+            unlink(n);
+            size--;
+            expired.accept(n);
+        }
+    }
+
+    /** Unlinks every node; used on shutdown. */
+    void clear(Consumer<Node> removed) {
+        for (Slot[] level : levels) for (Slot s : level) drain(s, removed);
+        drain(overflow, removed);
+        size = 0;
+    }
+
+    /* ---------------- internal ---------------- */
+
+    private Slot slotFor(long deadline) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((deadline >>> shift) == (now >>> shift)) {
+                return levels[level][(int) (deadline >>> (BITS * level)) & MASK];
+            }
+        }
+        return overflow;
+    }
+
+    /** Re-places all nodes of a higher-level slot relative to the current tick. */
+    private void cascade(Slot slot) {
+        if (slot.isEmpty()) return;
+        // detach the chain first: overflow nodes may land in the same list again
+        Node n = slot.head.next;
+        slot.head.prev.next = null;                          // terminate the detached chain
+        slot.head.prev = slot.head;
+        slot.head.next = slot.head;
+        while (n != null) {
+            Node next = n.next;
+            link(slotFor(n.deadline), n);
+            n = next;
+        }
+    }
+
+    private void drain(Slot s, Consumer<Node> removed) {
+        while (!s.isEmpty()) {
+            Node n = s.head.next;
+            unlink(n);
+            removed.accept(n);
+        }
+    }
+
+    private static void link(Slot slot, Node n) {
+        Node tail = slot.head.prev;
+        n.prev = tail;
+        n.next = slot.head;
+        tail.next = n;
+        slot.head.prev = n;
+        n.slot = slot;
+    }
+
+    private static void unlink(Node n) {
+        n.prev.next = n.next;
+        n.next.prev = n.prev;
+        n.prev = n.next = null;
+        n.slot = null;
+    }
+}
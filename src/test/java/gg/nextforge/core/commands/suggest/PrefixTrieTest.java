@@ -0,0 +1,97 @@
+package gg.nextforge.core.commands.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    @Test
+    void suggestsByPrefixIgnoringCaseInKeyOrder() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.addAll(List.of("Spawn", "shop", "sea", "Arena", "spawner"));
+
+        assertEquals(List.of("sea", "shop", "Spawn", "spawner"), trie.suggest("s"));
+        assertEquals(List.of("Spawn", "spawner"), trie.suggest("SPA"));
+        assertEquals(List.of("Arena", "sea", "shop", "Spawn", "spawner"), trie.suggest(""));
+        assertEquals(List.of(), trie.suggest("x"));
+    }
+
+    @Test
+    void limitStopsEarly() {
+        PrefixTrie trie = new PrefixTrie();
+        for (int i = 0; i < 100; i++) trie.add(String.format(Locale.ROOT, "p%03d", i));
+
+        assertEquals(List.of("p000", "p001", "p002"), trie.suggest("p", 3));
+        assertEquals(List.of(), trie.suggest("p", 0));
+    }
+
+    @Test
+    void keepsEntriesThatDifferOnlyInCase() {
+        PrefixTrie trie = new PrefixTrie();
+        assertTrue(trie.add("Steve"));
+        assertTrue(trie.add("steve"));
+        assertFalse(trie.add("Steve"));
+
+        assertEquals(2, trie.size());
+        assertTrue(trie.contains("steve"));
+        assertFalse(trie.contains("STEVE"));
+        assertEquals(List.of("Steve", "steve"), trie.suggest("st"));
+    }
+
+    @Test
+    void removePrunesEmptiedBranches() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.addAll(List.of("alpha", "alps", "beta"));
+
+        assertTrue(trie.remove("alpha"));
+        assertFalse(trie.remove("alpha"));
+        assertEquals(List.of("alps"), trie.suggest("al"));
+
+        assertTrue(trie.remove("alps"));
+        assertEquals(List.of(), trie.suggest("a"));
+        assertEquals(List.of("beta"), trie.suggest(""));
+        assertEquals(1, trie.size());
+
+        trie.clear();
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.suggest(""));
+    }
+
+    @Test
+    void readersAlwaysSeeAConsistentSnapshotWhileWritersChangeIt() throws Exception {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("stable");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch stop = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                while (stop.getCount() > 0) {
+                    List<String> s = trie.suggest("st");
+                    if (!s.contains("stable")) throw new AssertionError("lost entry: " + s);
+                    List<String> sorted = new ArrayList<>(s);
+                    sorted.sort(String.CASE_INSENSITIVE_ORDER);
+                    if (!sorted.equals(s)) throw new AssertionError("unsorted: " + s);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 50; i++) trie.add("st" + i);
+            for (int i = 0; i < 50; i++) trie.remove("st" + i);
+        }
+        stop.countDown();
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(1, trie.size());
+    }
+}
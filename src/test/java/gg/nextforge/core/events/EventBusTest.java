@@ -0,0 +1,77 @@
+package gg.nextforge.core.events;
+
+import gg.nextforge.core.events.annotation.Subscribe;
+import org.bukkit.event.EventPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+
+    interface Marker {}
+
+    record Ping(String player) implements Marker {}
+
+    private final EventBus bus = new EventBus();
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void dispatchesFromLowestToMonitorThenInSubscriptionOrder() {
+        bus.subscribe(Ping.class, EventPriority.MONITOR, e -> calls.add("monitor"));
+        bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("normal-1"));
+        bus.subscribe(Ping.class, EventPriority.LOWEST, e -> calls.add("lowest"));
+        bus.subscribe(Ping.class, EventPriority.HIGH, e -> calls.add("high"));
+        bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("normal-2"));
+
+        bus.post(new Ping("a"));
+
+        assertEquals(List.of("lowest", "normal-1", "normal-2", "high", "monitor"), calls);
+    }
+
+    @Test
+    void mergesSupertypeAndKeyedHandlersIntoTheSameOrder() {
+        bus.registerKey(Ping.class, Ping::player);
+        bus.subscribe(Object.class, EventPriority.MONITOR, e -> calls.add("object-monitor"));
+        bus.subscribe(Marker.class, EventPriority.LOW, e -> calls.add("marker-low"));
+        bus.subscribe(Ping.class, "a", EventPriority.HIGH, e -> calls.add("keyed-high"));
+        bus.subscribe(Ping.class, "b", EventPriority.HIGH, e -> calls.add("other-key"));
+        bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("normal"));
+
+        bus.post(new Ping("a"));
+
+        assertEquals(List.of("marker-low", "normal", "keyed-high", "object-monitor"), calls);
+    }
+
+    @Test
+    void unsubscribeTakesEffectOnTheNextPost() {
+        EventSubscription<Ping> first = bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("first"));
+        bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("second"));
+        bus.post(new Ping("a"));
+
+        bus.unsubscribe(first);
+        bus.post(new Ping("a"));
+
+        assertEquals(List.of("first", "second", "second"), calls);
+    }
+
+    @Test
+    void annotatedListenersUseGeneratedInvokersAndKeepPriorityOrder() {
+        class Listener {
+            @Subscribe(priority = EventPriority.MONITOR) void last(Ping p) { calls.add("listener-monitor"); }
+            @Subscribe(priority = EventPriority.LOWEST) void first(Ping p) { calls.add("listener-lowest"); }
+        }
+        Listener listener = new Listener();
+        bus.subscribe(Ping.class, EventPriority.NORMAL, e -> calls.add("normal"));
+        bus.register(listener);
+
+        bus.post(new Ping("a"));
+        bus.unregister(listener);
+        bus.post(new Ping("a"));
+
+        assertEquals(List.of("listener-lowest", "normal", "listener-monitor", "normal"), calls);
+        assertTrue(ListenerInvokers.of(Listener.class, null).stream().allMatch(ListenerInvokers.Handler::generated));
+    }
+}
@@ -0,0 +1,93 @@
+package gg.nextforge.core.i18n;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    private static final MiniMessage MM = MiniMessage.miniMessage();
+
+    @Test
+    void substitutesPlaceholdersLikeMiniMessage() {
+        String raw = "<red>Hello <name>, you have <count> coins</red>";
+        Component rendered = MessageTemplate.compile(raw).render(MM, Arg.text("name", "Bob"), Arg.text("count", 3));
+        Component expected = MM.deserialize(raw, Placeholder.unparsed("name", "Bob"), Placeholder.unparsed("count", "3"));
+
+        assertEquals(MM.serialize(expected.compact()), MM.serialize(rendered.compact()));
+    }
+
+    @Test
+    void templateWithoutPlaceholdersRendersOneSharedComponent() {
+        MessageTemplate t = MessageTemplate.compile("<green>static</green> text");
+
+        assertFalse(t.hasPlaceholders());
+        assertSame(t.render(MM), t.render(MM, Arg.text("unused", "x")));
+    }
+
+    @Test
+    void missingArgumentShowsTheLiteralTag() {
+        Component rendered = MessageTemplate.compile("missing <nope> here").render(MM);
+        assertEquals("missing <nope> here", plain(rendered));
+    }
+
+    @Test
+    void argumentFormattingDoesNotLeakIntoTheMessage() {
+        Component rendered = MessageTemplate.compile("<name>!").render(MM, Arg.parsed("name", "<bold>Bob"));
+        Component bang = rendered.children().isEmpty() ? rendered : rendered.children().get(rendered.children().size() - 1);
+
+        assertEquals("Bob!", plain(rendered));
+        assertNotEquals(TextDecoration.State.TRUE, bang.decoration(TextDecoration.BOLD));
+    }
+
+    @Test
+    void substitutesInsideHoverText() {
+        Component rendered = MessageTemplate.compile("<hover:show_text:'<name> hi'>x</hover>").render(MM, Arg.text("name", "Bob"));
+        HoverEvent<?> hover = findHover(rendered);
+
+        assertNotNull(hover);
+        assertEquals("Bob hi", plain((Component) hover.value()));
+    }
+
+    @Test
+    void placeholderInClickValueFallsBackToParsing() {
+        MessageTemplate t = MessageTemplate.compile("<click:run_command:'/tp <name>'>go</click>");
+        Component rendered = t.render(MM, Arg.text("name", "Bob"));
+
+        assertTrue(t.hasPlaceholders());
+        assertEquals("/tp Bob", rendered.clickEvent() != null ? rendered.clickEvent().value()
+                : rendered.children().get(0).clickEvent().value());
+    }
+
+    @Test
+    void gradientAroundPlaceholderStillRendersTheValue() {
+        Component rendered = MessageTemplate.compile("<gradient:red:blue>ab <name> cd</gradient>").render(MM, Arg.text("name", "Bob"));
+        assertEquals("ab Bob cd", plain(rendered));
+    }
+
+    @Test
+    void privateUseGlyphsAreNotMistakenForPlaceholders() {
+        String glyph = "\uE000";                                // first code point glyph plugins assign
+        assertEquals(glyph + " Shop", plain(MessageTemplate.compile(glyph + " <gold>Shop").render(MM)));
+        assertEquals(glyph + " Shop Bob", plain(MessageTemplate.compile(glyph + " <gold>Shop <name>").render(MM, Arg.text("name", "Bob"))));
+    }
+
+    private static String plain(Component c) {
+        return PlainTextComponentSerializer.plainText().serialize(c);
+    }
+
+    private static HoverEvent<?> findHover(Component c) {
+        if (c.hoverEvent() != null) return c.hoverEvent();
+        for (Component child : c.children()) {
+            HoverEvent<?> h = findHover(child);
+            if (h != null) return h;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,112 @@
+package gg.nextforge.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedSerialExecutorTest {
+
+    @Test
+    void runsTasksOfOneKeyInOrderAndNeverConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            KeyedSerialExecutor<Integer> keyed = new KeyedSerialExecutor<>(pool);
+            int keys = 8, perKey = 2_000;
+            List<List<Integer>> seen = new ArrayList<>();
+            AtomicInteger[] running = new AtomicInteger[keys];
+            AtomicInteger overlaps = new AtomicInteger();
+            for (int k = 0; k < keys; k++) {
+                seen.add(new ArrayList<>());
+                running[k] = new AtomicInteger();
+            }
+            CountDownLatch done = new CountDownLatch(keys * perKey);
+            for (int i = 0; i < perKey; i++) {
+                for (int k = 0; k < keys; k++) {
+                    int key = k, n = i;
+                    keyed.execute(key, () -> {
+                        if (running[key].incrementAndGet() != 1) overlaps.incrementAndGet();
+                        seen.get(key).add(n);
+                        running[key].decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            for (List<Integer> list : seen) {
+                assertEquals(perKey, list.size());
+                for (int i = 0; i < perKey; i++) assertEquals(i, list.get(i));
+            }
+            awaitIdle(keyed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void drainsOnTheCallerWhenTheExecutorRejectsWithoutRecursing() {
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(r -> { throw new RejectedExecutionException("full"); });
+        AtomicInteger ran = new AtomicInteger();
+
+        for (int i = 0; i < 200_000; i++) keyed.execute("k", ran::incrementAndGet);
+
+        assertEquals(200_000, ran.get());
+        assertEquals(0, keyed.activeKeys());
+    }
+
+    @Test
+    void drainsOnTheCallerWhenTheExecutorDiscards() {
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(
+                r -> Droppable.dropped(r, new RejectedExecutionException("discarded")));
+        AtomicInteger ran = new AtomicInteger();
+
+        keyed.execute("k", ran::incrementAndGet);
+        keyed.execute("k", ran::incrementAndGet);
+
+        assertEquals(2, ran.get());
+        assertEquals(0, keyed.activeKeys());
+    }
+
+    @Test
+    void laneDroppedAfterQueueingIsReplacedByTheNextTask() {
+        List<Runnable> queued = new ArrayList<>();
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(queued::add);
+        AtomicInteger ran = new AtomicInteger();
+        keyed.execute("k", ran::incrementAndGet);
+        assertEquals(1, queued.size());
+
+        Droppable.dropped(queued.remove(0), new CancellationException("closed"));
+        keyed.execute("k", ran::incrementAndGet);
+        queued.remove(0).run();
+
+        assertEquals(1, ran.get());                          // the dropped lane's task is lost, the new one runs
+        assertEquals(0, keyed.activeKeys());
+    }
+
+    @Test
+    void submitCompletesWithTheResult() throws Exception {
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(Runnable::run);
+        assertEquals(42, keyed.submit("k", () -> 42).get(1, TimeUnit.SECONDS));
+        CompletableFuture<Object> failed = keyed.submit("k", () -> { throw new IllegalStateException("boom"); });
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, failed::get).getCause());
+    }
+
+    @Test
+    void rejectsTasksAfterClose() {
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(Runnable::run);
+        keyed.close();
+        assertThrows(RejectedExecutionException.class, () -> keyed.execute("k", () -> {}));
+    }
+
+    private static void awaitIdle(KeyedSerialExecutor<?> keyed) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (keyed.activeKeys() > 0 && System.nanoTime() < until) Thread.sleep(1);
+        assertEquals(0, keyed.activeKeys());
+    }
+}
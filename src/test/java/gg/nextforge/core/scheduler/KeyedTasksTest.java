@@ -0,0 +1,127 @@
+package gg.nextforge.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedTasksTest {
+
+    /** Records scheduled runs instead of executing them; the test fires them by hand. */
+    private static final class ManualScheduler {
+        long now;
+        int rejectNext;
+        final List<Runnable> runs = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        TaskHandle schedule(Runnable run, long delay) {
+            if (rejectNext > 0) {
+                rejectNext--;
+                throw new RejectedExecutionException("rejected");
+            }
+            runs.add(run);
+            delays.add(delay);
+            return new TaskHandle() {
+                @Override public void cancel() { }
+                @Override public boolean isCancelled() { return false; }
+            };
+        }
+
+        void fire(int index) {
+            runs.get(index).run();
+        }
+    }
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final KeyedTasks tasks = new KeyedTasks(() -> scheduler.now, scheduler::schedule);
+
+    @Test
+    void coalesceRunsOnlyTheLatestTaskOnce() {
+        List<String> ran = new ArrayList<>();
+        tasks.submit("k", 0L, () -> ran.add("first"));
+        tasks.submit("k", 0L, () -> ran.add("second"));
+        assertEquals(1, scheduler.runs.size());
+
+        scheduler.fire(0);
+
+        assertEquals(List.of("second"), ran);
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void debounceRearmsForTheRemainingDelayWhenResubmitted() {
+        AtomicInteger ran = new AtomicInteger();
+        tasks.submit("k", 5L, ran::incrementAndGet);
+        scheduler.now = 3L;
+        tasks.submit("k", 5L, ran::incrementAndGet);        // deadline moves to 8
+
+        scheduler.now = 5L;
+        scheduler.fire(0);
+        assertEquals(0, ran.get());
+        assertEquals(List.of(5L, 3L), scheduler.delays);
+
+        scheduler.now = 8L;
+        scheduler.fire(1);
+        assertEquals(1, ran.get());
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void rejectedArmLeavesNoDeadEntry() {
+        scheduler.rejectNext = 1;
+        assertThrows(RejectedExecutionException.class, () -> tasks.submit("k", 0L, () -> {}));
+        assertEquals(0, tasks.size());
+
+        AtomicInteger ran = new AtomicInteger();
+        tasks.submit("k", 0L, ran::incrementAndGet);
+        scheduler.fire(0);
+        assertEquals(1, ran.get());
+    }
+
+    @Test
+    void rejectedRearmLeavesNoDeadEntry() {
+        tasks.submit("k", 5L, () -> {});
+        scheduler.now = 2L;
+        tasks.submit("k", 5L, () -> {});
+        scheduler.now = 5L;
+        scheduler.rejectNext = 1;
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.fire(0));
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void droppedRunFreesTheKey() {
+        tasks.submit("k", 0L, () -> {});
+        Droppable.dropped(scheduler.runs.get(0), new CancellationException("closed"));
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void cancelRemovesThePendingRun() {
+        AtomicInteger ran = new AtomicInteger();
+        TaskHandle handle = tasks.submit("k", 0L, ran::incrementAndGet);
+        handle.cancel();
+
+        scheduler.fire(0);
+
+        assertTrue(handle.isCancelled());
+        assertEquals(0, ran.get());
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    void keysAreIndependent() {
+        List<String> ran = new ArrayList<>();
+        tasks.submit("a", 0L, () -> ran.add("a"));
+        tasks.submit("b", 0L, () -> ran.add("b"));
+        scheduler.fire(1);
+        scheduler.fire(0);
+        assertEquals(List.of("b", "a"), ran);
+    }
+}
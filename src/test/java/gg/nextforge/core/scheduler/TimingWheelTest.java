@@ -0,0 +1,98 @@
+package gg.nextforge.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final class Task extends TimingWheel.Node {
+        long firedAt = -1L;
+
+        Task(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    @Test
+    void firesEachNodeAtItsDeadlineOnEveryLevel() {
+        TimingWheel wheel = new TimingWheel(0L);
+        long[] deadlines = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000, (1L << 24) + 5};
+        List<Task> tasks = new ArrayList<>();
+        for (long d : deadlines) {
+            Task t = new Task(d);
+            assertTrue(wheel.schedule(t));
+            tasks.add(t);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        advanceTo(wheel, deadlines[deadlines.length - 1]);
+
+        for (Task t : tasks) assertEquals(t.deadline, t.firedAt, "deadline " + t.deadline);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void matchesReferenceForRandomDeadlinesFromOddStart() {
+        long start = 1_000_003L;
+        TimingWheel wheel = new TimingWheel(start);
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Task t = new Task(start + 1 + random.nextInt(i % 3 == 0 ? 300_000 : 5_000));
+            wheel.schedule(t);
+            tasks.add(t);
+        }
+        advanceTo(wheel, start + 300_001);
+
+        for (Task t : tasks) assertEquals(t.deadline, t.firedAt);
+    }
+
+    @Test
+    void rejectsDeadlinesThatAreNotInTheFuture() {
+        TimingWheel wheel = new TimingWheel(10L);
+        assertFalse(wheel.schedule(new Task(10L)));
+        assertFalse(wheel.schedule(new Task(3L)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledNodesNeverFire() {
+        TimingWheel wheel = new TimingWheel(0L);
+        Task near = new Task(5L), far = new Task(10_000L);
+        wheel.schedule(near);
+        wheel.schedule(far);
+        wheel.cancel(near);
+        wheel.cancel(far);
+        wheel.cancel(far);                                   // second cancel is a no-op
+
+        advanceTo(wheel, 10_000L);
+
+        assertEquals(-1L, near.firedAt);
+        assertEquals(-1L, far.firedAt);
+        assertFalse(near.scheduled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void clearHandsBackEveryNode() {
+        TimingWheel wheel = new TimingWheel(0L);
+        for (long d : new long[]{1, 100, 5_000, 1L << 30}) wheel.schedule(new Task(d));
+        List<TimingWheel.Node> removed = new ArrayList<>();
+
+        wheel.clear(removed::add);
+
+        assertEquals(4, removed.size());
+        assertEquals(0, wheel.size());
+        for (TimingWheel.Node n : removed) assertFalse(n.scheduled());
+    }
+
+    private static void advanceTo(TimingWheel wheel, long tick) {
+        while (wheel.now() < tick) {
+            long now = wheel.now() + 1;
+            wheel.advance(n -> ((Task) n).firedAt = now);
+        }
+    }
+}